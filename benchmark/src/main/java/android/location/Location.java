@@ -0,0 +1,95 @@
+package android.location;
+
+/**
+ * Plain JVM stand-in for the Android Location, the android.jar stub throws on every call.
+ * It covers only the members used by the library so NMEAParser can be benchmarked outside of Android.
+ */
+public class Location {
+    private String provider;
+    private long time;
+    private double latitude;
+    private double longitude;
+    private double altitude;
+    private float speed;
+    private float bearing;
+    private float accuracy;
+
+    public Location(String provider) {
+        this.provider = provider;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public void reset() {
+        provider = null;
+        time = 0;
+        latitude = 0;
+        longitude = 0;
+        altitude = 0;
+        speed = 0;
+        bearing = 0;
+        accuracy = 0;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getAltitude() {
+        return altitude;
+    }
+
+    public void setAltitude(double altitude) {
+        this.altitude = altitude;
+    }
+
+    public float getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(float speed) {
+        this.speed = speed;
+    }
+
+    public float getBearing() {
+        return bearing;
+    }
+
+    public void setBearing(float bearing) {
+        this.bearing = bearing;
+    }
+
+    public float getAccuracy() {
+        return accuracy;
+    }
+
+    public void setAccuracy(float accuracy) {
+        this.accuracy = accuracy;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.petr_s.nmea;
+
+import android.location.Location;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end assembly of a single epoch: RMC + GGA into a Location and 3 GSV + GSA into satellites.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NMEAParserBenchmark {
+    private static final String[] EPOCH = {
+            "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38",
+            "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F",
+            "$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D",
+            "$GPGSV,3,2,11,12,23,110,34,26,18,295,29,21,17,190,30,05,11,092,25*72",
+            "$GPGSV,3,3,11,14,02,232,13,23,02,346,12,20,01,135,13*48",
+            "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B"};
+
+    private SinkHandler handler;
+    private SinkHandler pooledHandler;
+    private NMEAParser parser;
+    private NMEAParser confinedParser;
+    private NMEAParser pooledParser;
+
+    @Setup
+    public void setUp() {
+        handler = new SinkHandler();
+        parser = new NMEAParser(handler);
+        confinedParser = new NMEAParser(handler, new LocationFactory() {
+            @Override
+            public Location newLocation() {
+                return new Location(NMEAParser.LOCATION_PROVIDER_NAME);
+            }
+        }, false, false);
+        final PooledLocationFactory factory = new PooledLocationFactory(NMEAParser.LOCATION_PROVIDER_NAME, 1, false);
+        pooledHandler = new SinkHandler() {
+            @Override
+            public void onLocation(Location location) {
+                super.onLocation(location);
+                factory.recycle(location);
+            }
+        };
+        pooledParser = new NMEAParser(pooledHandler, factory, true, false);
+    }
+
+    @Benchmark
+    public double epoch() {
+        for (String sentence : EPOCH) {
+            parser.parse(sentence);
+        }
+        return handler.sink;
+    }
+
+    @Benchmark
+    public double epochConfined() {
+        for (String sentence : EPOCH) {
+            confinedParser.parse(sentence);
+        }
+        return handler.sink;
+    }
+
+    @Benchmark
+    public double epochPooled() {
+        for (String sentence : EPOCH) {
+            pooledParser.parse(sentence);
+        }
+        return pooledHandler.sink;
+    }
+
+    static class SinkHandler extends NMEAAdapter {
+        double sink;
+
+        @Override
+        public void onLocation(Location location) {
+            sink += location.getTime() + location.getLatitude() + location.getLongitude();
+        }
+
+        @Override
+        public void onSatellites(List<GpsSatellite> satellites) {
+            sink += satellites.size();
+        }
+    }
+}
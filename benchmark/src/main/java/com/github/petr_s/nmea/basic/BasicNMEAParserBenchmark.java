@@ -0,0 +1,226 @@
+package com.github.petr_s.nmea.basic;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasicNMEAParserBenchmark {
+    static final String GPRMC = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38";
+    static final String GPGGA = "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F";
+    static final String GPGSV = "$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D";
+    static final String GPGSA = "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B";
+    static final String BAD_CHECKSUM = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*42";
+    static final String UNRECOGNIZED = "$GPXXX,1,2,3*53";
+    static final String MALFORMED = "$GPRMC,163407.000,A,50x4.7485,N,01423.8956,E,0.04,36.97,180416,,*70";
+
+    private SinkHandler handler;
+    private BasicNMEAParser parser;
+    private BasicNMEAParser rmcParser;
+    private BasicNMEAParser statsParser;
+    private SinkErrorHandler errorHandler;
+    private BasicNMEAParser errorParser;
+    private SinkSentenceHandler sentenceHandler;
+    private BasicNMEAParser sentenceParser;
+    private SinkFixHandler fixHandler;
+    private BasicNMEAParser fixParser;
+    private byte[] gprmcBytes;
+    private byte[] batchBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        handler = new SinkHandler();
+        parser = new BasicNMEAParser(handler);
+        rmcParser = new BasicNMEAParser(handler);
+        rmcParser.subscribe(EnumSet.of(BasicNMEAHandler.SentenceType.RMC), EnumSet.allOf(BasicNMEAHandler.Talker.class), false);
+        statsParser = new BasicNMEAParser(handler);
+        statsParser.setStats(new BasicNMEAStats());
+        errorHandler = new SinkErrorHandler();
+        errorParser = new BasicNMEAParser(errorHandler);
+        sentenceHandler = new SinkSentenceHandler();
+        sentenceParser = new BasicNMEAParser(sentenceHandler);
+        fixHandler = new SinkFixHandler();
+        fixParser = new BasicNMEAParser(new BasicNMEAFixAssembler(fixHandler), true, false);
+        gprmcBytes = GPRMC.getBytes("US-ASCII");
+        batchBytes = (GPRMC + "\r\n" + GPGGA + "\r\n" + GPGSV + "\r\n" + GPGSA + "\r\n").getBytes("US-ASCII");
+    }
+
+    @Benchmark
+    public double gprmc() {
+        parser.parse(GPRMC);
+        return handler.sink;
+    }
+
+    /**
+     * Same as {@link #gprmc()} with stats enabled, i.e. the cost of the counters and of the latency histogram.
+     */
+    @Benchmark
+    public double gprmcStats() {
+        statsParser.parse(GPRMC);
+        return handler.sink;
+    }
+
+    @Benchmark
+    public double gprmcBytes() {
+        parser.parse(gprmcBytes, 0, gprmcBytes.length);
+        return handler.sink;
+    }
+
+    /**
+     * Reads only the position of the sentence view.
+     */
+    @Benchmark
+    public double gprmcView() {
+        sentenceParser.parse(GPRMC);
+        return sentenceHandler.sink;
+    }
+
+    @Benchmark
+    public double gpgga() {
+        parser.parse(GPGGA);
+        return handler.sink;
+    }
+
+    @Benchmark
+    public double gpgsv() {
+        parser.parse(GPGSV);
+        return handler.sink;
+    }
+
+    @Benchmark
+    public double gpgsa() {
+        parser.parse(GPGSA);
+        return handler.sink;
+    }
+
+    @Benchmark
+    public double gpgsvSkipped() {
+        rmcParser.parse(GPGSV);
+        return handler.sink;
+    }
+
+    /**
+     * Parses RMC, GGA, GSV and GSA as a single batch.
+     */
+    @Benchmark
+    public double batch() {
+        parser.parseBatch(batchBytes, 0, batchBytes.length);
+        return handler.sink;
+    }
+
+    /**
+     * Assembles RMC and GGA into a primitive fix.
+     */
+    @Benchmark
+    public double fix() {
+        fixParser.parse(GPRMC);
+        fixParser.parse(GPGGA);
+        return fixHandler.sink;
+    }
+
+    @Benchmark
+    public double badChecksum() {
+        parser.parse(BAD_CHECKSUM);
+        return handler.sink;
+    }
+
+    @Benchmark
+    public double unrecognized() {
+        parser.parse(UNRECOGNIZED);
+        return handler.sink;
+    }
+
+    /**
+     * Malformed sentence reported by an error code.
+     */
+    @Benchmark
+    public double malformed() {
+        errorParser.parse(MALFORMED);
+        return errorHandler.sink;
+    }
+
+    /**
+     * Malformed sentence reported as an exception, to a handler without {@link BasicNMEAErrorHandler}.
+     */
+    @Benchmark
+    public double malformedException() {
+        parser.parse(MALFORMED);
+        return handler.sink;
+    }
+
+    /**
+     * Folds every callback argument into a field so that the JIT can't drop the decoding.
+     */
+    static class SinkHandler extends BasicNMEAAdapter {
+        double sink;
+
+        @Override
+        public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+            sink += date + time + latitude + longitude + speed + direction;
+        }
+
+        @Override
+        public void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop) {
+            sink += time + latitude + longitude + altitude + quality.value + satellites + hdop;
+        }
+
+        @Override
+        public void onGSV(int satellites, int index, int prn, float elevation, float azimuth, int snr) {
+            sink += satellites + index + prn + elevation + azimuth + snr;
+        }
+
+        @Override
+        public void onGSA(FixType type, Set<Integer> prns, float pdop, float hdop, float vdop) {
+            sink += type.value + prns.size() + pdop + hdop + vdop;
+        }
+
+        @Override
+        public void onUnrecognized(String sentence) {
+            sink += sentence.length();
+        }
+
+        @Override
+        public void onBadChecksum(int expected, int actual) {
+            sink += expected + actual;
+        }
+
+        @Override
+        public void onException(Exception e) {
+            sink++;
+        }
+    }
+
+    static class SinkErrorHandler extends BasicNMEAAdapter implements BasicNMEAErrorHandler {
+        double sink;
+
+        @Override
+        public void onError(SentenceType type, int field, FieldError error) {
+            sink += type.ordinal() + field + error.ordinal();
+        }
+    }
+
+    static class SinkSentenceHandler extends BasicNMEAAdapter implements BasicNMEASentenceHandler {
+        double sink;
+
+        @Override
+        public void onSentence(BasicNMEASentence sentence) {
+            sink += sentence.getLatitude(BasicNMEASentence.RMC_LATITUDE) + sentence.getLongitude(BasicNMEASentence.RMC_LONGITUDE);
+        }
+    }
+
+    static class SinkFixHandler extends BasicNMEAAdapter implements BasicNMEAFixHandler {
+        double sink;
+
+        @Override
+        public void onFix(BasicNMEAFix fix) {
+            sink += fix.getTime() + fix.getLatitude() + fix.getLongitude() + fix.getAltitude() + fix.getSpeed();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.github.petr_s.nmea.basic;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State of a fix assembled from the RMC and GGA sentences of one epoch (sentences of the same time),
+ * deciding when the fix is emitted according to its {@link Policy}, and measuring the latency
+ * from the first sentence of an epoch to its first emission.
+ * <p>
+ * It is driven by an assembler (e.g. {@link BasicNMEAFixAssembler}) for every RMC and GGA:
+ * {@link #open(long)} before the fields of the sentence are stored into the pending fix and
+ * {@link #add(long, int)} after that. {@link #expired()} is checked once the sentences are parsed.
+ * The epoch belongs to a single assembler, the metrics may be read from any thread.
+ */
+public class BasicNMEAEpoch {
+    public static final int RMC = 1;
+    public static final int GGA = 2;
+    public static final int ALL = RMC | GGA;
+    /**
+     * The pending fix goes on, store the sentence into it.
+     */
+    public static final int CONTINUE = 0;
+    /**
+     * Nothing is pending, store the sentence into a new fix.
+     */
+    public static final int START = 1;
+    /**
+     * An unfinished fix of another epoch was never emitted and is discarded, store the sentence into a new fix.
+     */
+    public static final int DISCARD = 2;
+    /**
+     * An unfinished fix of another epoch has to be emitted now, store the sentence into a new fix.
+     */
+    public static final int EMIT = 3;
+    /**
+     * The pending fix was already emitted, store the sentence into a copy of it.
+     */
+    public static final int COPY = 4;
+    private final Policy policy;
+    private final long timeoutNanos;
+    private long lastTime;
+    private int flags;
+    private boolean emitted;
+    private long firstNanos;
+    private volatile long epochs;
+    private volatile long completed;
+    private volatile long dropped;
+    private volatile long lastLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long totalLatencyNanos;
+
+    public BasicNMEAEpoch() {
+        this(Policy.COMPLETE, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param policy  when the fix of an epoch is emitted
+     * @param timeout time from the first sentence of an epoch after which {@link Policy#TIMEOUT} emits an unfinished fix,
+     *                ignored by the other policies
+     * @param unit    unit of the timeout
+     */
+    public BasicNMEAEpoch(Policy policy, long timeout, TimeUnit unit) {
+        if (policy == null || unit == null) {
+            throw new NullPointerException();
+        }
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+
+        this.policy = policy;
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Called before a sentence is stored into the pending fix.
+     *
+     * @param time UTC time of the sentence (without date)
+     * @return what to do with the pending fix: {@link #CONTINUE}, {@link #START}, {@link #DISCARD}, {@link #EMIT}
+     * or {@link #COPY}
+     */
+    public int open(long time) {
+        if (flags == 0) {
+            firstNanos = System.nanoTime();
+            return START;
+        }
+        if (time == lastTime) {
+            return emitted ? COPY : CONTINUE;
+        }
+
+        int action;
+        if (emitted) {
+            action = START;
+        } else if (policy == Policy.TIMEOUT) {
+            emitted(false);
+            action = EMIT;
+        } else {
+            dropped++;
+            action = DISCARD;
+        }
+        flags = 0;
+        emitted = false;
+        firstNanos = System.nanoTime();
+        return action;
+    }
+
+    /**
+     * Called after a sentence is stored into the pending fix.
+     *
+     * @param time UTC time of the sentence (without date)
+     * @param flag {@link #RMC} or {@link #GGA}
+     * @return true if the fix has to be emitted now
+     */
+    public boolean add(long time, int flag) {
+        flags |= flag;
+        lastTime = time;
+
+        if (flags == ALL) {
+            emitted(true);
+            flags = 0;
+            lastTime = 0;
+            emitted = false;
+            return true;
+        }
+        if (policy == Policy.FIRST || emitted) {
+            emitted(false);
+            emitted = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Called once the sentences are parsed, and whenever the caller wants to enforce the timeout.
+     *
+     * @return true if the unfinished fix has to be emitted now, because its timeout expired
+     */
+    public boolean expired() {
+        if (policy != Policy.TIMEOUT || flags == 0 || emitted || System.nanoTime() - firstNanos < timeoutNanos) {
+            return false;
+        }
+        emitted(false);
+        emitted = true;
+        return true;
+    }
+
+    private void emitted(boolean complete) {
+        if (complete) {
+            completed++;
+        }
+        if (emitted) {
+            return;
+        }
+
+        long latency = System.nanoTime() - firstNanos;
+        epochs++;
+        lastLatencyNanos = latency;
+        totalLatencyNanos += latency;
+        if (latency > maxLatencyNanos) {
+            maxLatencyNanos = latency;
+        }
+    }
+
+    /**
+     * @return true if the pending fix holds a sentence of the given kind
+     */
+    public boolean has(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    /**
+     * @return true if a fix is pending, i.e. it may still be updated by the current epoch
+     */
+    public boolean isPending() {
+        return flags != 0;
+    }
+
+    /**
+     * @return true if unfinished fixes may be emitted
+     */
+    public boolean isEager() {
+        return policy != Policy.COMPLETE;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return number of emitted epochs, updates of an already emitted epoch are not counted
+     */
+    public long getEpochs() {
+        return epochs;
+    }
+
+    /**
+     * @return number of epochs completed by both RMC and GGA
+     */
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return number of unfinished epochs discarded without emission
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @return time from the first sentence to the first emission of the last emitted epoch
+     */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    public long getMeanLatencyNanos() {
+        long count = epochs;
+        return count == 0 ? 0 : totalLatencyNanos / count;
+    }
+
+    public enum Policy {
+        /**
+         * Emits a fix once both RMC and GGA of the same time arrived, unfinished fixes are discarded.
+         */
+        COMPLETE,
+        /**
+         * Emits an unfinished fix on the first RMC or GGA of an epoch, and again on every later sentence of it.
+         */
+        FIRST,
+        /**
+         * Emits a fix once both RMC and GGA arrived, or unfinished once the timeout expired or the next epoch started,
+         * and again on every later sentence of it.
+         */
+        TIMEOUT
+    }
+}
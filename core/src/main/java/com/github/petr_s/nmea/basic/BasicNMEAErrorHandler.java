@@ -0,0 +1,52 @@
+package com.github.petr_s.nmea.basic;
+
+import java.util.Locale;
+
+/**
+ * Extension of {@link BasicNMEAHandler} receiving malformed fields as error codes.
+ * When the handler implements it, the parser calls {@link #onError(SentenceType, int, FieldError)}
+ * instead of {@link BasicNMEAHandler#onException(Exception)} for a sentence with a malformed field,
+ * without constructing any exception. Exceptions thrown by the callbacks are still passed to onException.
+ */
+public interface BasicNMEAErrorHandler extends BasicNMEAHandler {
+    /***
+     * Called instead of the callbacks of a sentence with a malformed field.
+     * No other callback of the sentence is called, e.g. none of the GSV satellites is passed to {@link #onGSV}.
+     *
+     * @param type  type of the sentence
+     * @param field index of the first malformed field, counted from 0 after the sentence type
+     *              like in {@link BasicNMEASentence}
+     * @param error what is wrong with the field
+     */
+    void onError(SentenceType type, int field, FieldError error);
+
+    enum FieldError {
+        /** a required field is empty */
+        MISSING,
+        /** a number has invalid characters or too many digits */
+        INVALID_NUMBER,
+        /** a (d)ddmm.mmmm coordinate is malformed */
+        INVALID_COORDINATE,
+        /** a hhmmss.sss time is malformed */
+        INVALID_TIME,
+        /** a ddmmyy date is malformed */
+        INVALID_DATE,
+        /** a character is not one of the allowed ones */
+        INVALID_CHAR,
+        /** a number is out of the range of its field, e.g. an unknown fix quality */
+        OUT_OF_RANGE;
+
+        /**
+         * For handlers without {@link BasicNMEAErrorHandler}, which expect the error passed to
+         * {@link BasicNMEAHandler#onException(Exception)}.
+         *
+         * @return {@link NumberFormatException} of a malformed number, coordinate, time or date or a missing value,
+         * {@link IllegalArgumentException} otherwise
+         */
+        public IllegalArgumentException toException(SentenceType type, int field) {
+            String message = name().toLowerCase(Locale.ROOT).replace('_', ' ') + " in field " + field + " of " + type;
+            return this == INVALID_CHAR || this == OUT_OF_RANGE
+                    ? new IllegalArgumentException(message) : new NumberFormatException(message);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.petr_s.nmea.basic;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.FixQuality;
+
+/**
+ * Position fix merged from RMC and GGA sentences of the same time, a primitive counterpart of a Location.
+ */
+public class BasicNMEAFix {
+    long time;
+    double latitude;
+    double longitude;
+    float altitude;
+    float speed;
+    float bearing;
+    float hdop;
+    FixQuality quality;
+    int satellites;
+    boolean complete;
+
+    public BasicNMEAFix() {
+    }
+
+    public BasicNMEAFix(BasicNMEAFix fix) {
+        time = fix.time;
+        latitude = fix.latitude;
+        longitude = fix.longitude;
+        altitude = fix.altitude;
+        speed = fix.speed;
+        bearing = fix.bearing;
+        hdop = fix.hdop;
+        quality = fix.quality;
+        satellites = fix.satellites;
+        complete = fix.complete;
+    }
+
+    void clear() {
+        time = 0;
+        latitude = 0;
+        longitude = 0;
+        altitude = 0;
+        speed = 0;
+        bearing = 0;
+        hdop = 0;
+        quality = null;
+        satellites = 0;
+        complete = false;
+    }
+
+    /**
+     * @return milliseconds since midnight, January 1, 1970 UTC
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @return altitude in meters above corrected geoid
+     */
+    public float getAltitude() {
+        return altitude;
+    }
+
+    /**
+     * @return speed in meters per second
+     */
+    public float getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @return angular bearing value to the North
+     */
+    public float getBearing() {
+        return bearing;
+    }
+
+    /**
+     * @return horizontal dilution of precision
+     */
+    public float getHdop() {
+        return hdop;
+    }
+
+    public FixQuality getQuality() {
+        return quality;
+    }
+
+    /**
+     * @return number of satellites used for the fix
+     */
+    public int getSatellites() {
+        return satellites;
+    }
+
+    /**
+     * @return true if the fix was merged from both RMC and GGA, partial fixes hold the fields of one of them only
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public String toString() {
+        return "BasicNMEAFix{" +
+                "time=" + time +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", altitude=" + altitude +
+                ", speed=" + speed +
+                ", bearing=" + bearing +
+                ", hdop=" + hdop +
+                ", quality=" + quality +
+                ", satellites=" + satellites +
+                ", complete=" + complete +
+                '}';
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.petr_s.nmea.basic;
+
+import java.util.Set;
+
+/**
+ * Handler merging RMC and GGA sentences of the same time into a {@link BasicNMEAFix}, like
+ * NMEAParser assembles a Location, without any Android dependency or per-epoch allocation.
+ * Every callback is passed on to the wrapped handler, followed by {@link BasicNMEAFixHandler#onFix(BasicNMEAFix)}
+ * once the fix is complete, e.g. {@code new BasicNMEAParser(new BasicNMEAFixAssembler(handler))}.
+ * The talkers are passed on to a handler implementing {@link BasicNMEATalkerHandler} and GSA satellites
+ * as a bitmask to a handler implementing {@link BasicNMEAMaskHandler}, or as a new set otherwise.
+ * {@link BasicNMEASentenceHandler} is not supported, as its sentence views replace the callbacks
+ * the fixes are assembled from.
+ * A partial fix is discarded when a sentence of another time arrives, unless the {@link BasicNMEAEpoch}
+ * policy emits partial fixes early.
+ * Malformed sentences are passed on to a handler implementing {@link BasicNMEAErrorHandler}, or as an exception.
+ * GGA has no date, so the time of a fix without RMC takes the date of the last RMC,
+ * and is 0 until the first RMC arrived.
+ */
+public class BasicNMEAFixAssembler implements BasicNMEAErrorHandler, BasicNMEATalkerHandler, BasicNMEAMaskHandler {
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private final BasicNMEAFixHandler handler;
+    private final BasicNMEAErrorHandler errorHandler;
+    private final BasicNMEATalkerHandler talkerHandler;
+    private final BasicNMEAMaskHandler maskHandler;
+    private final BasicNMEAEpoch epoch;
+    private final BasicNMEAFix fix = new BasicNMEAFix();
+    private long lastDate = -1;
+    private long lastTime;
+
+    public BasicNMEAFixAssembler(BasicNMEAFixHandler handler) {
+        this(handler, new BasicNMEAEpoch());
+    }
+
+    /**
+     * @param handler handler of the sentences and fixes
+     * @param epoch   emission policy and latency metrics of the fixes, used by this assembler only
+     */
+    public BasicNMEAFixAssembler(BasicNMEAFixHandler handler, BasicNMEAEpoch epoch) {
+        if (handler == null || epoch == null) {
+            throw new NullPointerException();
+        }
+
+        this.handler = handler;
+        this.errorHandler = handler instanceof BasicNMEAErrorHandler ? (BasicNMEAErrorHandler) handler : null;
+        this.talkerHandler = handler instanceof BasicNMEATalkerHandler ? (BasicNMEATalkerHandler) handler : null;
+        this.maskHandler = handler instanceof BasicNMEAMaskHandler ? (BasicNMEAMaskHandler) handler : null;
+        this.epoch = epoch;
+    }
+
+    /**
+     * Emits the pending partial fix if the timeout of {@link BasicNMEAEpoch.Policy#TIMEOUT} expired,
+     * for callers that can't rely on a steady flow of sentences. Must not be called concurrently with parsing.
+     */
+    public void poll() {
+        if (epoch.expired()) {
+            handler.onFix(fix);
+        }
+    }
+
+    private void newFix(long time) {
+        switch (epoch.open(time)) {
+            case BasicNMEAEpoch.EMIT:
+                handler.onFix(fix);
+                fix.clear();
+                break;
+            case BasicNMEAEpoch.START:
+            case BasicNMEAEpoch.DISCARD:
+                fix.clear();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return time of a GGA on the date of the last RMC, on the next day if it passed midnight since then
+     */
+    private long dateTime(long time) {
+        if (lastDate < 0) {
+            return 0;
+        }
+        return lastDate + time + (time < lastTime ? DAY_MILLIS : 0);
+    }
+
+    private void yieldFix(long time, int flag) {
+        if (epoch.add(time, flag)) {
+            fix.complete = !epoch.isPending();
+            handler.onFix(fix);
+        }
+    }
+
+    @Override
+    public void onStart() {
+        handler.onStart();
+    }
+
+    @Override
+    public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+        handler.onRMC(date, time, latitude, longitude, speed, direction);
+        newFix(time);
+
+        if (epoch.isEager() && !epoch.has(BasicNMEAEpoch.GGA)) {
+            fix.latitude = latitude;
+            fix.longitude = longitude;
+        }
+        fix.time = date + time;
+        lastDate = date;
+        lastTime = time;
+        fix.speed = speed;
+        fix.bearing = direction;
+
+        yieldFix(time, BasicNMEAEpoch.RMC);
+    }
+
+    @Override
+    public void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop) {
+        handler.onGGA(time, latitude, longitude, altitude, quality, satellites, hdop);
+        newFix(time);
+
+        if (!epoch.has(BasicNMEAEpoch.RMC)) {
+            fix.time = dateTime(time);
+        }
+        fix.latitude = latitude;
+        fix.longitude = longitude;
+        fix.altitude = altitude;
+        fix.quality = quality;
+        fix.satellites = satellites;
+        fix.hdop = hdop;
+
+        yieldFix(time, BasicNMEAEpoch.GGA);
+    }
+
+    @Override
+    public void onGSV(int satellites, int index, int prn, float elevation, float azimuth, int snr) {
+        handler.onGSV(satellites, index, prn, elevation, azimuth, snr);
+    }
+
+    @Override
+    public void onGSA(FixType type, Set<Integer> prns, float pdop, float hdop, float vdop) {
+        handler.onGSA(type, prns, pdop, hdop, vdop);
+    }
+
+    @Override
+    public void onGSA(FixType type, long[] prns, float pdop, float hdop, float vdop) {
+        if (maskHandler != null) {
+            maskHandler.onGSA(type, prns, pdop, hdop, vdop);
+        } else {
+            PrnSet set = new PrnSet();
+            set.set(prns);
+            handler.onGSA(type, set, pdop, hdop, vdop);
+        }
+    }
+
+    @Override
+    public void onTalker(Talker talker) {
+        if (talkerHandler != null) {
+            talkerHandler.onTalker(talker);
+        }
+    }
+
+    @Override
+    public void onUnrecognized(String sentence) {
+        handler.onUnrecognized(sentence);
+    }
+
+    @Override
+    public void onBadChecksum(int expected, int actual) {
+        handler.onBadChecksum(expected, actual);
+    }
+
+    @Override
+    public void onException(Exception e) {
+        handler.onException(e);
+    }
+
+    @Override
+    public void onError(SentenceType type, int field, FieldError error) {
+        if (errorHandler != null) {
+            errorHandler.onError(type, field, error);
+        } else {
+            handler.onException(error.toException(type, field));
+        }
+    }
+
+    @Override
+    public void onFinished() {
+        poll();
+        handler.onFinished();
+    }
+}
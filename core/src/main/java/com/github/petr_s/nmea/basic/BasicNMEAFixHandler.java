@@ -0,0 +1,13 @@
+package com.github.petr_s.nmea.basic;
+
+/**
+ * Extension of {@link BasicNMEAHandler} receiving fixes assembled by {@link BasicNMEAFixAssembler}.
+ */
+public interface BasicNMEAFixHandler extends BasicNMEAHandler {
+    /***
+     * Called once both RMC and GGA of the same time are parsed, after their own callbacks.
+     *
+     * @param fix merged fix, reused by the assembler and valid only during the call
+     */
+    void onFix(BasicNMEAFix fix);
+}
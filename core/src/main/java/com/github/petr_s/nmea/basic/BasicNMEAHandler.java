@@ -6,7 +6,7 @@ public interface BasicNMEAHandler {
     void onStart();
 
     /***
-     * Called on GPRMC parsed.
+     * Called on RMC parsed (GPRMC, GNRMC, ...).
      *
      * @param date      milliseconds since midnight, January 1, 1970 UTC.
      * @param time      actual UTC time (without date)
@@ -18,7 +18,7 @@ public interface BasicNMEAHandler {
     void onRMC(long date, long time, double latitude, double longitude, float speed, float direction);
 
     /***
-     * Called on GPGGA parsed.
+     * Called on GGA parsed (GPGGA, GNGGA, ...).
      *
      * @param time        actual UTC time (without date)
      * @param latitude    angular y position on the Earth.
@@ -31,7 +31,7 @@ public interface BasicNMEAHandler {
     void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop);
 
     /***
-     * Called on GPGSV parsed.
+     * Called on GSV parsed (GPGSV, GNGSV, ...).
      * Note that single nmea sentence contains up to 4 satellites therefore you can receive 4 calls per sentence.
      *
      * @param satellites total number of satellites
@@ -44,7 +44,7 @@ public interface BasicNMEAHandler {
     void onGSV(int satellites, int index, int prn, float elevation, float azimuth, int snr);
 
     /***
-     * Called on GPGSA parsed.
+     * Called on GSA parsed (GPGSA, GNGSA, ...).
      *
      * @param type type of fix
      * @param prns set of satellites used for the current fix
@@ -92,4 +92,34 @@ public interface BasicNMEAHandler {
             this.value = value;
         }
     }
+
+    /**
+     * Sentence formatter, the last three characters of the sentence type.
+     */
+    enum SentenceType {
+        RMC,
+        GGA,
+        GSV,
+        GSA
+    }
+
+    /**
+     * Talker ID, the first two characters of the sentence type.
+     */
+    enum Talker {
+        /** GPS */
+        GP,
+        /** GLONASS */
+        GL,
+        /** Galileo */
+        GA,
+        /** BeiDou */
+        GB,
+        /** BeiDou (legacy ID) */
+        BD,
+        /** QZSS */
+        GQ,
+        /** combined GNSS */
+        GN
+    }
 }
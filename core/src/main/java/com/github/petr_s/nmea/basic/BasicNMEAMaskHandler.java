@@ -0,0 +1,20 @@
+package com.github.petr_s.nmea.basic;
+
+/**
+ * Extension of {@link BasicNMEAHandler} receiving GSA satellites as a primitive PRN bitmask.
+ * When the handler implements it, the parser calls {@link #onGSA(FixType, long[], float, float, float)}
+ * instead of {@link BasicNMEAHandler#onGSA(FixType, java.util.Set, float, float, float)}.
+ */
+public interface BasicNMEAMaskHandler extends BasicNMEAHandler {
+    /***
+     * Called on GSA parsed (GPGSA, GNGSA, ...).
+     *
+     * @param type type of fix
+     * @param prns bitmask of satellites used for the current fix, see {@link PrnMask}.
+     *             The array is reused by the parser and valid only during the call.
+     * @param pdop position dilution of precision
+     * @param hdop horizontal dilution of precision
+     * @param vdop vertical dilution of precision
+     */
+    void onGSA(FixType type, long[] prns, float pdop, float hdop, float vdop);
+}
@@ -0,0 +1,867 @@
+package com.github.petr_s.nmea.basic;
+
+import com.github.petr_s.nmea.basic.BasicNMEAHandler.FixQuality;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Set;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAErrorHandler.FieldError;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.FixType;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.Talker;
+
+public class BasicNMEAParser {
+    static final Charset US_ASCII = Charset.forName("US-ASCII");
+    private static final float KNOTS2MPS = 0.514444f;
+    private static final int TYPE_LENGTH = 5;
+    private static final int CHECKSUM_LENGTH = 2;
+    private static final int MIN_LENGTH = 1 + TYPE_LENGTH + 1 + 1 + CHECKSUM_LENGTH;
+    private static final String STATUS = "AV";
+    private static final String VDIR = "NS";
+    private static final String HDIR = "EW";
+    private static final String MODE = "AM";
+    private static final String FAA = "ADEMSN";
+    private static final int NO_PRN = -1;
+    private static final FixQuality[] FIX_QUALITIES = FixQuality.values();
+    private static final FixType[] FIX_TYPES = FixType.values();
+    private static final int RMC = 'R' << 16 | 'M' << 8 | 'C';
+    private static final int GGA = 'G' << 16 | 'G' << 8 | 'A';
+    private static final int GSV = 'G' << 16 | 'S' << 8 | 'V';
+    private static final int GSA = 'G' << 16 | 'S' << 8 | 'A';
+    private static final int ALL = -1;
+
+    private final BasicNMEAHandler handler;
+    private final BasicNMEAMaskHandler maskHandler;
+    private final BasicNMEATalkerHandler talkerHandler;
+    private final BasicNMEASentenceHandler sentenceHandler;
+    private final BasicNMEAErrorHandler errorHandler;
+    private final boolean reuse;
+    private final Object lock;
+    private final SentenceTokenizer tokenizer = new SentenceTokenizer();
+    private final PrnSet prns = new PrnSet();
+    private final int[] gsvIndices = new int[4];
+    private final int[] gsvPrns = new int[4];
+    private final int[] gsvElevations = new int[4];
+    private final int[] gsvAzimuths = new int[4];
+    private final int[] gsvSnrs = new int[4];
+    private final BasicNMEASentence view;
+    private byte[] scratch = new byte[128];
+    private Talker talker;
+    private int typeMask = ALL;
+    private int talkerMask = ALL;
+    private boolean verifySkipped;
+    private BasicNMEAStats stats;
+
+    public BasicNMEAParser(BasicNMEAHandler handler) {
+        this(handler, false, true);
+    }
+
+    public BasicNMEAParser(BasicNMEAHandler handler, boolean reuse) {
+        this(handler, reuse, true);
+    }
+
+    /**
+     * @param handler    handler of the parsed sentences
+     * @param reuse      if true, objects passed to the handler (the GSA set of PRNs) are reused by the
+     *                   next sentence and stay valid only during the callback. Parsing then allocates
+     *                   nothing once warmed up.
+     * @param threadSafe if true, parsing may be called from several threads and is serialized on the parser,
+     *                   otherwise the parser takes no locks and must be confined to a single thread at a time
+     */
+    public BasicNMEAParser(BasicNMEAHandler handler, boolean reuse, boolean threadSafe) {
+        this.handler = handler;
+        this.maskHandler = handler instanceof BasicNMEAMaskHandler ? (BasicNMEAMaskHandler) handler : null;
+        this.talkerHandler = handler instanceof BasicNMEATalkerHandler ? (BasicNMEATalkerHandler) handler : null;
+        this.sentenceHandler = handler instanceof BasicNMEASentenceHandler ? (BasicNMEASentenceHandler) handler : null;
+        this.errorHandler = handler instanceof BasicNMEAErrorHandler ? (BasicNMEAErrorHandler) handler : null;
+        this.view = sentenceHandler != null ? new BasicNMEASentence() : null;
+        this.reuse = reuse;
+        this.lock = threadSafe ? this : null;
+
+        if (handler == null) {
+            throw new NullPointerException();
+        }
+    }
+
+    /**
+     * @return talker of the sentence, or null if not supported
+     */
+    private static Talker talker(byte[] buffer, int offset) {
+        return talker(buffer[offset], buffer[offset + 1]);
+    }
+
+    private static Talker talker(byte first, byte second) {
+        switch (first << 8 | second) {
+            case 'G' << 8 | 'P':
+                return Talker.GP;
+            case 'G' << 8 | 'L':
+                return Talker.GL;
+            case 'G' << 8 | 'A':
+                return Talker.GA;
+            case 'G' << 8 | 'B':
+                return Talker.GB;
+            case 'B' << 8 | 'D':
+                return Talker.BD;
+            case 'G' << 8 | 'Q':
+                return Talker.GQ;
+            case 'G' << 8 | 'N':
+                return Talker.GN;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Restricts decoding to the given sentence types and talkers.
+     * Other sentences, including unsupported ones, are skipped right after their type
+     * without any callback.
+     *
+     * @param types    sentence types to decode
+     * @param talkers  talkers to decode
+     * @param checksum if true, skipped sentences are still checksum-checked and bad ones
+     *                 are reported by {@link BasicNMEAHandler#onBadChecksum(int, int)}
+     */
+    public void subscribe(Set<SentenceType> types, Set<Talker> talkers, boolean checksum) {
+        int typeMask = 0;
+        for (SentenceType type : types) {
+            typeMask |= 1 << type.ordinal();
+        }
+        int talkerMask = 0;
+        for (Talker talker : talkers) {
+            talkerMask |= 1 << talker.ordinal();
+        }
+
+        if (lock == null) {
+            subscribe(typeMask, talkerMask, checksum);
+        } else {
+            synchronized (lock) {
+                subscribe(typeMask, talkerMask, checksum);
+            }
+        }
+    }
+
+    /**
+     * Decodes all sentences again, reverting {@link #subscribe(Set, Set, boolean)}.
+     */
+    public void subscribeAll() {
+        if (lock == null) {
+            subscribe(ALL, ALL, false);
+        } else {
+            synchronized (lock) {
+                subscribe(ALL, ALL, false);
+            }
+        }
+    }
+
+    /**
+     * Enables counting of the parsed sentences and measuring of their decoding latency.
+     * Without stats, parsing takes no measurements at all.
+     *
+     * @param stats stats to record into, may be shared by several parsers, or null to disable them
+     */
+    public void setStats(BasicNMEAStats stats) {
+        if (lock == null) {
+            this.stats = stats;
+        } else {
+            synchronized (lock) {
+                this.stats = stats;
+            }
+        }
+    }
+
+    public BasicNMEAStats getStats() {
+        if (lock == null) {
+            return stats;
+        }
+        synchronized (lock) {
+            return stats;
+        }
+    }
+
+    private void subscribe(int typeMask, int talkerMask, boolean checksum) {
+        this.typeMask = typeMask;
+        this.talkerMask = talkerMask;
+        this.verifySkipped = checksum;
+    }
+
+    private static SentenceType type(int formatter) {
+        switch (formatter) {
+            case RMC:
+                return SentenceType.RMC;
+            case GGA:
+                return SentenceType.GGA;
+            case GSV:
+                return SentenceType.GSV;
+            case GSA:
+                return SentenceType.GSA;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return true if the sentence is well-formed enough to have a type which is not subscribed
+     */
+    private boolean skipped(byte[] buffer, int offset, int length) {
+        if (length < MIN_LENGTH || buffer[offset] != '$') {
+            return false;
+        }
+        return skipped(talker(buffer, offset + 1), type(formatter(buffer, offset + 3)));
+    }
+
+    private boolean skipped(ByteBuffer buffer, int offset, int length) {
+        if (length < MIN_LENGTH || buffer.get(offset) != '$') {
+            return false;
+        }
+        return skipped(talker(buffer.get(offset + 1), buffer.get(offset + 2)), type(formatter(buffer, offset + 3)));
+    }
+
+    private boolean skipped(Talker talker, SentenceType type) {
+        return talker == null || type == null
+                || (talkerMask & 1 << talker.ordinal()) == 0 || (typeMask & 1 << type.ordinal()) == 0;
+    }
+
+    private static int formatter(byte[] buffer, int offset) {
+        return buffer[offset] << 16 | buffer[offset + 1] << 8 | buffer[offset + 2];
+    }
+
+    private static int formatter(ByteBuffer buffer, int offset) {
+        return buffer.get(offset) << 16 | buffer.get(offset + 1) << 8 | buffer.get(offset + 2);
+    }
+
+    private boolean parse(int formatter, SentenceTokenizer fields) {
+        switch (formatter) {
+            case RMC:
+                return parseRMC(fields);
+            case GGA:
+                return parseGGA(fields);
+            case GSV:
+                return parseGSV(fields);
+            case GSA:
+                return parseGSA(fields);
+            default:
+                return false;
+        }
+    }
+
+    private void onTalker() {
+        if (talkerHandler != null) {
+            talkerHandler.onTalker(talker);
+        }
+    }
+
+    /**
+     * Reports the first malformed field of a sentence.
+     *
+     * @return true, the sentence is recognized
+     */
+    private boolean malformed(SentenceType type, SentenceTokenizer fields) {
+        if (stats != null) {
+            stats.recordMalformed();
+        }
+        if (errorHandler != null) {
+            errorHandler.onError(type, fields.errorField(), fields.error());
+        } else {
+            handler.onException(fields.exception());
+        }
+        return true;
+    }
+
+    private boolean parseRMC(SentenceTokenizer fields) {
+        long time = fields.nextTime();
+        if (fields.nextChar(STATUS) != 'A' && !fields.failed()) {
+            return false;
+        }
+        double latitude = fields.nextCoordinate(2);
+        char vDir = fields.nextChar(VDIR);
+        double longitude = fields.nextCoordinate(3);
+        char hDir = fields.nextChar(HDIR);
+        float speed = fields.nextFloat() * KNOTS2MPS;
+        float direction = fields.nextFloat(0.0f);
+        long date = fields.nextDate();
+        float magVar = fields.nextFloat(0.0f);
+        char magVarDir = fields.nextChar(HDIR, 'E');
+        char faa = fields.nextChar(FAA, 'N');
+        if (fields.failed()) {
+            return malformed(SentenceType.RMC, fields);
+        }
+
+        onTalker();
+        handler.onRMC(date,
+                time,
+                vDir == 'N' ? latitude : -latitude,
+                hDir == 'E' ? longitude : -longitude,
+                speed,
+                direction);
+
+        return true;
+    }
+
+    private boolean parseGGA(SentenceTokenizer fields) {
+        long time = fields.nextTime();
+        double latitude = fields.nextCoordinate(2);
+        char vDir = fields.nextChar(VDIR);
+        double longitude = fields.nextCoordinate(3);
+        char hDir = fields.nextChar(HDIR);
+        FixQuality quality = fixQuality(fields);
+        int satellites = fields.nextInt();
+        float hdop = fields.nextFloat();
+        float altitude = fields.nextFloat();
+        fields.skip();
+        float separation = fields.nextFloat();
+        fields.skip();
+        float age = fields.nextFloat(0.0f);
+        int station = fields.nextInt(0);
+        if (fields.failed()) {
+            return malformed(SentenceType.GGA, fields);
+        }
+
+        onTalker();
+        handler.onGGA(time,
+                vDir == 'N' ? latitude : -latitude,
+                hDir == 'E' ? longitude : -longitude,
+                altitude - separation,
+                quality,
+                satellites,
+                hdop);
+
+        return true;
+    }
+
+    private boolean parseGSV(SentenceTokenizer fields) {
+        int sentences = fields.nextInt();
+        int index = fields.nextInt() - 1;
+        if (index < 0 || index >= sentences) {
+            fields.fail(FieldError.OUT_OF_RANGE);
+        }
+        int satellites = fields.nextInt();
+        int count = 0;
+        for (int i = 0; i < 4 && fields.hasNext(); i++) {
+            int prn = fields.nextInt(NO_PRN);
+            if (prn != NO_PRN && index * 4 + i >= satellites) {
+                fields.fail(FieldError.OUT_OF_RANGE);
+            }
+            if (prn == NO_PRN) {
+                fields.skip();
+                fields.skip();
+                fields.skip();
+            } else {
+                gsvIndices[count] = index * 4 + i;
+                gsvPrns[count] = prn;
+                gsvElevations[count] = fields.nextInt();
+                gsvAzimuths[count] = fields.nextInt();
+                gsvSnrs[count] = fields.nextInt(0);
+                count++;
+            }
+        }
+        if (fields.failed()) {
+            return malformed(SentenceType.GSV, fields);
+        }
+
+        onTalker();
+        for (int i = 0; i < count; i++) {
+            handler.onGSV(satellites, gsvIndices[i], gsvPrns[i], gsvElevations[i], gsvAzimuths[i], gsvSnrs[i]);
+        }
+
+        return true;
+    }
+
+    private boolean parseGSA(SentenceTokenizer fields) {
+        char mode = fields.nextChar(MODE);
+        FixType type = fixType(fields);
+        PrnSet prns = reuse || maskHandler != null ? this.prns : new PrnSet();
+        prns.reset();
+        for (int i = 0; i < 12; i++) {
+            int prn = fields.nextInt(NO_PRN);
+            if (prn > PrnMask.MAX_PRN) {
+                fields.fail(FieldError.OUT_OF_RANGE);
+            } else if (prn != NO_PRN) {
+                prns.set(prn);
+            }
+        }
+        float pdop = fields.nextFloat();
+        float hdop = fields.nextFloat();
+        float vdop = fields.nextFloat();
+        if (fields.failed()) {
+            return malformed(SentenceType.GSA, fields);
+        }
+
+        onTalker();
+        if (maskHandler != null) {
+            maskHandler.onGSA(type, prns.words(), pdop, hdop, vdop);
+        } else {
+            handler.onGSA(type, prns, pdop, hdop, vdop);
+        }
+
+        return true;
+    }
+
+    private static FixQuality fixQuality(SentenceTokenizer fields) {
+        int quality = fields.nextInt();
+        if (quality >= FIX_QUALITIES.length) {
+            fields.fail(FieldError.OUT_OF_RANGE);
+            return null;
+        }
+        return FIX_QUALITIES[quality];
+    }
+
+    private static FixType fixType(SentenceTokenizer fields) {
+        int type = fields.nextInt();
+        if (type >= FIX_TYPES.length) {
+            fields.fail(FieldError.OUT_OF_RANGE);
+            return null;
+        }
+        return FIX_TYPES[type];
+    }
+
+    /**
+     * Validates the framing of a sentence and calculates its checksum in a single pass.
+     *
+     * @return XOR of the bytes between '$' and '*', or -1 if the bytes don't form a sentence
+     */
+    private static int scan(byte[] buffer, int offset, int length) {
+        int end = offset + length - CHECKSUM_LENGTH - 1;
+        if (length < MIN_LENGTH || buffer[offset] != '$' || buffer[offset + TYPE_LENGTH + 1] != ',' || buffer[end] != '*') {
+            return -1;
+        }
+
+        int checksum = 0;
+        for (int i = offset + 1; i <= offset + TYPE_LENGTH; i++) {
+            byte c = buffer[i];
+            if (!isWordChar(c)) {
+                return -1;
+            }
+            checksum ^= c;
+        }
+        for (int i = offset + TYPE_LENGTH + 1; i < end; i++) {
+            byte c = buffer[i];
+            if (c == '\r' || c == '\n') {
+                return -1;
+            }
+            checksum ^= c & 0xFF;
+        }
+        return checksum;
+    }
+
+    private static int scan(ByteBuffer buffer, int offset, int length) {
+        int end = offset + length - CHECKSUM_LENGTH - 1;
+        if (length < MIN_LENGTH || buffer.get(offset) != '$' || buffer.get(offset + TYPE_LENGTH + 1) != ','
+                || buffer.get(end) != '*') {
+            return -1;
+        }
+
+        int checksum = 0;
+        for (int i = offset + 1; i <= offset + TYPE_LENGTH; i++) {
+            byte c = buffer.get(i);
+            if (!isWordChar(c)) {
+                return -1;
+            }
+            checksum ^= c;
+        }
+        for (int i = offset + TYPE_LENGTH + 1; i < end; i++) {
+            byte c = buffer.get(i);
+            if (c == '\r' || c == '\n') {
+                return -1;
+            }
+            checksum ^= c & 0xFF;
+        }
+        return checksum;
+    }
+
+    private static boolean isWordChar(byte c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static int hexValue(byte c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static boolean valid(byte[] buffer, int offset, int length) {
+        int checksum = scan(buffer, offset, length);
+        return checksum >= 0 && checksum == checksum(buffer, offset, length);
+    }
+
+    private static boolean valid(ByteBuffer buffer, int offset, int length) {
+        int checksum = scan(buffer, offset, length);
+        return checksum >= 0 && checksum == checksum(buffer, offset, length);
+    }
+
+    private static int checksum(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        return hexValue(buffer[end - 2]) << 4 | hexValue(buffer[end - 1]);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        int end = offset + length;
+        return hexValue(buffer.get(end - 2)) << 4 | hexValue(buffer.get(end - 1));
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    public void parse(String sentence) {
+        if (sentence == null) {
+            throw new NullPointerException();
+        }
+
+        if (lock == null) {
+            parse(ascii(sentence), 0, sentence.length(), sentence);
+        } else {
+            synchronized (lock) {
+                parse(ascii(sentence), 0, sentence.length(), sentence);
+            }
+        }
+    }
+
+    /**
+     * Parses a single sentence stored as ASCII bytes.
+     *
+     * @param buffer array holding the sentence
+     * @param offset index of the leading '$'
+     * @param length length of the sentence, without line terminator
+     */
+    public void parse(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (lock == null) {
+            parse(buffer, offset, length, null);
+        } else {
+            synchronized (lock) {
+                parse(buffer, offset, length, null);
+            }
+        }
+    }
+
+    /**
+     * Parses a single sentence held in the remaining bytes of a heap or direct buffer.
+     * The position of the buffer is advanced to its limit.
+     * A direct or read-only buffer is decoded in place with absolute reads, without copying the sentence,
+     * except for a {@link BasicNMEASentenceHandler}, whose view needs the sentence in an array.
+     *
+     * @param buffer buffer holding the sentence, without line terminator
+     */
+    public void parse(ByteBuffer buffer) {
+        if (lock == null) {
+            parseBuffer(buffer);
+        } else {
+            synchronized (lock) {
+                parseBuffer(buffer);
+            }
+        }
+    }
+
+    private void parseBuffer(ByteBuffer buffer) {
+        int length = buffer.remaining();
+        if (buffer.hasArray()) {
+            parse(buffer.array(), buffer.arrayOffset() + buffer.position(), length, null);
+            buffer.position(buffer.limit());
+        } else if (sentenceHandler != null) {
+            byte[] bytes = scratch(length);
+            buffer.get(bytes, 0, length);
+            parse(bytes, 0, length, null);
+        } else {
+            parse(buffer, buffer.position(), length);
+            buffer.position(buffer.limit());
+        }
+    }
+
+    /**
+     * Parses line separated sentences between a single pair of
+     * {@link BasicNMEAHandler#onStart()} and {@link BasicNMEAHandler#onFinished()} calls.
+     * Empty lines are ignored.
+     *
+     * @param buffer array holding the sentences
+     * @param offset index of the first sentence
+     * @param length length of the sentences in bytes
+     * @return number of sentences passed to the handler or skipped
+     */
+    public int parseBatch(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (lock == null) {
+            return batch(buffer, offset, length);
+        }
+        synchronized (lock) {
+            return batch(buffer, offset, length);
+        }
+    }
+
+    private int batch(byte[] buffer, int offset, int length) {
+        int sentences = 0;
+        handler.onStart();
+        try {
+            int end = offset + length;
+            int start = offset;
+            for (int i = offset; i <= end; i++) {
+                if (i == end || buffer[i] == '\n') {
+                    int to = i > start && buffer[i - 1] == '\r' ? i - 1 : i;
+                    if (to > start) {
+                        if (!skip(buffer, start, to - start)) {
+                            decode(buffer, start, to - start, null);
+                        }
+                        sentences++;
+                    }
+                    start = i + 1;
+                }
+            }
+        } finally {
+            handler.onFinished();
+        }
+        return sentences;
+    }
+
+    /**
+     * Parses sentences already framed in a buffer between a single pair of
+     * {@link BasicNMEAHandler#onStart()} and {@link BasicNMEAHandler#onFinished()} calls,
+     * used by {@link BasicNMEAReader} and {@link BasicNMEARingBuffer}.
+     *
+     * @param buffer  array holding the sentences
+     * @param offsets index of the leading '$' of every sentence
+     * @param lengths length of every sentence, without line terminator
+     * @param from    index of the first sentence in offsets and lengths
+     * @param count   number of sentences, indexes past the end of the arrays wrap around to 0
+     * @return number of sentences passed to the handler or skipped
+     */
+    int parseBatch(byte[] buffer, int[] offsets, int[] lengths, int from, int count) {
+        if (lock == null) {
+            return batch(buffer, offsets, lengths, from, count);
+        }
+        synchronized (lock) {
+            return batch(buffer, offsets, lengths, from, count);
+        }
+    }
+
+    private int batch(byte[] buffer, int[] offsets, int[] lengths, int from, int count) {
+        handler.onStart();
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = (from + i) % offsets.length;
+                if (!skip(buffer, offsets[index], lengths[index])) {
+                    decode(buffer, offsets[index], lengths[index], null);
+                }
+            }
+        } finally {
+            handler.onFinished();
+        }
+        return count;
+    }
+
+    /**
+     * Parses sentences between a single pair of
+     * {@link BasicNMEAHandler#onStart()} and {@link BasicNMEAHandler#onFinished()} calls.
+     *
+     * @param sentences sentences without line terminators
+     * @return number of sentences passed to the handler or skipped
+     */
+    public int parseBatch(Iterable<String> sentences) {
+        if (lock == null) {
+            return batch(sentences);
+        }
+        synchronized (lock) {
+            return batch(sentences);
+        }
+    }
+
+    private int batch(Iterable<String> sentences) {
+        int count = 0;
+        handler.onStart();
+        try {
+            for (String sentence : sentences) {
+                if (sentence == null) {
+                    throw new NullPointerException();
+                }
+                byte[] buffer = ascii(sentence);
+                if (!skip(buffer, 0, sentence.length())) {
+                    decode(buffer, 0, sentence.length(), sentence);
+                }
+                count++;
+            }
+        } finally {
+            handler.onFinished();
+        }
+        return count;
+    }
+
+    private byte[] ascii(String sentence) {
+        int length = sentence.length();
+        byte[] buffer = scratch(length);
+        for (int i = 0; i < length; i++) {
+            char c = sentence.charAt(i);
+            buffer[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        return buffer;
+    }
+
+    private boolean skip(byte[] buffer, int offset, int length) {
+        if ((typeMask & talkerMask) != ALL && skipped(buffer, offset, length)
+                && (!verifySkipped || valid(buffer, offset, length))) {
+            if (stats != null) {
+                stats.recordSkipped();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private boolean skip(ByteBuffer buffer, int offset, int length) {
+        if ((typeMask & talkerMask) != ALL && skipped(buffer, offset, length)
+                && (!verifySkipped || valid(buffer, offset, length))) {
+            if (stats != null) {
+                stats.recordSkipped();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void parse(byte[] buffer, int offset, int length, String sentence) {
+        if (skip(buffer, offset, length)) {
+            return;
+        }
+
+        handler.onStart();
+        try {
+            decode(buffer, offset, length, sentence);
+        } finally {
+            handler.onFinished();
+        }
+    }
+
+    private void parse(ByteBuffer buffer, int offset, int length) {
+        if (skip(buffer, offset, length)) {
+            return;
+        }
+
+        handler.onStart();
+        try {
+            decode(buffer, offset, length);
+        } finally {
+            handler.onFinished();
+        }
+    }
+
+    private void decode(byte[] buffer, int offset, int length, String sentence) {
+        BasicNMEAStats stats = this.stats;
+        long start = stats != null ? System.nanoTime() : 0;
+        try {
+            int end = offset + length;
+            int actual_checksum = scan(buffer, offset, length);
+            int expected_checksum = actual_checksum < 0 ? -1 : checksum(buffer, offset, length);
+            if (expected_checksum >= 0) {
+                if (actual_checksum != expected_checksum) {
+                    if (stats != null) {
+                        stats.recordBadChecksum();
+                    }
+                    handler.onBadChecksum(expected_checksum, actual_checksum);
+                } else if (sentenceHandler != null) {
+                    SentenceType type = type(formatter(buffer, offset + 3));
+                    view.reset(buffer, offset, length, end - CHECKSUM_LENGTH - 1, talker(buffer, offset + 1), type);
+                    sentenceHandler.onSentence(view);
+                    if (stats != null && type != null) {
+                        stats.recordSentence(type);
+                    } else if (stats != null) {
+                        stats.recordUnrecognized();
+                    }
+                } else {
+                    int formatter = formatter(buffer, offset + 3);
+                    talker = talker(buffer, offset + 1);
+                    tokenizer.reset(buffer, offset + TYPE_LENGTH + 2, end - CHECKSUM_LENGTH - 1);
+                    if (talker == null || !parse(formatter, tokenizer)) {
+                        if (stats != null) {
+                            stats.recordUnrecognized();
+                        }
+                        handler.onUnrecognized(text(buffer, offset, length, sentence));
+                    } else if (stats != null && !tokenizer.failed()) {
+                        stats.recordSentence(type(formatter));
+                    }
+                }
+            } else {
+                if (stats != null) {
+                    stats.recordUnrecognized();
+                }
+                handler.onUnrecognized(text(buffer, offset, length, sentence));
+            }
+        } catch (Exception e) {
+            if (stats != null) {
+                stats.recordException();
+            }
+            handler.onException(e);
+        }
+        if (stats != null) {
+            stats.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Same as {@link #decode(byte[], int, int, String)} without a sentence handler,
+     * reading the buffer with absolute gets.
+     */
+    private void decode(ByteBuffer buffer, int offset, int length) {
+        BasicNMEAStats stats = this.stats;
+        long start = stats != null ? System.nanoTime() : 0;
+        try {
+            int end = offset + length;
+            int actual_checksum = scan(buffer, offset, length);
+            int expected_checksum = actual_checksum < 0 ? -1 : checksum(buffer, offset, length);
+            if (expected_checksum >= 0 && actual_checksum != expected_checksum) {
+                if (stats != null) {
+                    stats.recordBadChecksum();
+                }
+                handler.onBadChecksum(expected_checksum, actual_checksum);
+            } else if (expected_checksum >= 0) {
+                int formatter = formatter(buffer, offset + 3);
+                talker = talker(buffer.get(offset + 1), buffer.get(offset + 2));
+                tokenizer.reset(buffer, offset + TYPE_LENGTH + 2, end - CHECKSUM_LENGTH - 1);
+                if (talker == null || !parse(formatter, tokenizer)) {
+                    if (stats != null) {
+                        stats.recordUnrecognized();
+                    }
+                    handler.onUnrecognized(text(buffer, offset, length));
+                } else if (stats != null && !tokenizer.failed()) {
+                    stats.recordSentence(type(formatter));
+                }
+            } else {
+                if (stats != null) {
+                    stats.recordUnrecognized();
+                }
+                handler.onUnrecognized(text(buffer, offset, length));
+            }
+        } catch (Exception e) {
+            if (stats != null) {
+                stats.recordException();
+            }
+            handler.onException(e);
+        }
+        if (stats != null) {
+            stats.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    private static String text(byte[] buffer, int offset, int length, String sentence) {
+        return sentence != null ? sentence : new String(buffer, offset, length, US_ASCII);
+    }
+
+    static String text(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, US_ASCII);
+    }
+}
@@ -0,0 +1,190 @@
+package com.github.petr_s.nmea.basic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Streaming reader that frames "$...\r\n" sentences from a channel or stream
+ * and hands them to a {@link BasicNMEAParser} straight from a reusable buffer, all sentences of a single read
+ * as one batch (see {@link BasicNMEAParser#parseBatch(byte[], int, int)}),
+ * or to a {@link BasicNMEARingBuffer} parsed on another thread.
+ * Bytes outside of a frame are skipped, frames interrupted by another '$' or
+ * longer than the maximum sentence length are dropped.
+ */
+public class BasicNMEAReader {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_SENTENCE_LENGTH = 256;
+    private final BasicNMEAParser parser;
+    private final BasicNMEARingBuffer ring;
+    private final ByteBuffer buffer;
+    private final int maxSentenceLength;
+    private int[] offsets = new int[64];
+    private int[] lengths = new int[64];
+    private int pending;
+    private long sentences;
+    private long dropped;
+
+    public BasicNMEAReader(BasicNMEAParser parser) {
+        this(parser, DEFAULT_BUFFER_SIZE, DEFAULT_MAX_SENTENCE_LENGTH);
+    }
+
+    /**
+     * @param parser            parser receiving framed sentences
+     * @param bufferSize        size of the read buffer in bytes
+     * @param maxSentenceLength maximum length of a sentence without line terminator
+     */
+    public BasicNMEAReader(BasicNMEAParser parser, int bufferSize, int maxSentenceLength) {
+        this(parser, null, bufferSize, maxSentenceLength);
+    }
+
+    public BasicNMEAReader(BasicNMEARingBuffer ring) {
+        this(ring, DEFAULT_BUFFER_SIZE, DEFAULT_MAX_SENTENCE_LENGTH);
+    }
+
+    /**
+     * @param ring              ring buffer receiving framed sentences, this reader is its producer
+     * @param bufferSize        size of the read buffer in bytes
+     * @param maxSentenceLength maximum length of a sentence without line terminator
+     */
+    public BasicNMEAReader(BasicNMEARingBuffer ring, int bufferSize, int maxSentenceLength) {
+        this(null, ring, bufferSize, maxSentenceLength);
+    }
+
+    private BasicNMEAReader(BasicNMEAParser parser, BasicNMEARingBuffer ring, int bufferSize, int maxSentenceLength) {
+        if (parser == null && ring == null) {
+            throw new NullPointerException();
+        }
+        if (maxSentenceLength <= 0 || bufferSize <= maxSentenceLength + 2) {
+            throw new IllegalArgumentException("buffer must be larger than a sentence");
+        }
+
+        this.parser = parser;
+        this.ring = ring;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.maxSentenceLength = maxSentenceLength;
+    }
+
+    /**
+     * Reads the stream until its end.
+     *
+     * @param in stream of NMEA sentences
+     * @return number of sentences passed to the parser
+     * @throws IOException if reading fails
+     */
+    public long read(InputStream in) throws IOException {
+        return read(Channels.newChannel(in));
+    }
+
+    /**
+     * Reads a blocking channel until its end.
+     *
+     * @param channel channel of NMEA sentences
+     * @return number of sentences passed to the parser
+     * @throws IOException if reading fails
+     */
+    public synchronized long read(ReadableByteChannel channel) throws IOException {
+        long before = sentences;
+        byte[] data = buffer.array();
+        int limit = 0;
+        int start = -1;
+        buffer.clear();
+
+        while (channel.read(buffer) >= 0) {
+            int scan = limit;
+            limit = buffer.position();
+            start = frame(data, scan, limit, start);
+            flush(data);
+
+            int keep = start >= 0 ? start : limit;
+            System.arraycopy(data, keep, data, 0, limit - keep);
+            limit -= keep;
+            start = start >= 0 ? 0 : -1;
+            buffer.position(limit);
+        }
+
+        if (start >= 0) {
+            dispatch(data, start, limit);
+            flush(data);
+        }
+
+        return sentences - before;
+    }
+
+    /**
+     * @return total number of sentences passed to the parser
+     */
+    public synchronized long getSentences() {
+        return sentences;
+    }
+
+    /**
+     * @return total number of truncated or over-long frames that were dropped,
+     * including the sentences dropped by the ring buffer, see {@link BasicNMEARingBuffer#getDropped()}
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Dispatches every complete frame in the given range.
+     *
+     * @return start of the pending incomplete frame, or -1
+     */
+    private int frame(byte[] data, int from, int to, int start) {
+        for (int i = from; i < to; i++) {
+            byte b = data[i];
+            if (b == '$') {
+                if (start >= 0) {
+                    dropped++;
+                }
+                start = i;
+            } else if (start < 0) {
+                continue;
+            } else if (b == '\n') {
+                dispatch(data, start, i);
+                start = -1;
+            } else if (i - start > maxSentenceLength) {
+                dropped++;
+                start = -1;
+            }
+        }
+
+        return start;
+    }
+
+    private void dispatch(byte[] data, int start, int end) {
+        if (end > start && data[end - 1] == '\r') {
+            end--;
+        }
+        if (ring != null) {
+            if (!ring.offer(data, start, end - start)) {
+                dropped++;
+                return;
+            }
+        } else {
+            if (pending == offsets.length) {
+                offsets = Arrays.copyOf(offsets, pending * 2);
+                lengths = Arrays.copyOf(lengths, pending * 2);
+            }
+            offsets[pending] = start;
+            lengths[pending] = end - start;
+            pending++;
+        }
+        sentences++;
+    }
+
+    /**
+     * Parses the sentences framed since the last flush, before the buffer is compacted.
+     */
+    private void flush(byte[] data) {
+        if (pending > 0) {
+            int count = pending;
+            pending = 0;
+            parser.parseBatch(data, offsets, lengths, 0, count);
+        }
+    }
+}
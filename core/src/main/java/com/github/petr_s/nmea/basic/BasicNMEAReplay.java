@@ -0,0 +1,194 @@
+package com.github.petr_s.nmea.basic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * Replays recorded NMEA log files through a {@link BasicNMEAParser}.
+ * The file is memory-mapped window by window and sentences are framed directly
+ * in the mapped region, the same way {@link BasicNMEAReader} frames a stream.
+ * Sentences are decoded in place as well, unless the parser's handler is a
+ * {@link BasicNMEASentenceHandler}, see {@link BasicNMEAParser#parse(java.nio.ByteBuffer)}.
+ */
+public class BasicNMEAReplay {
+    public static final int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024;
+    private final BasicNMEAParser parser;
+    private final int windowSize;
+    private final int maxSentenceLength;
+    private long sentences;
+    private long dropped;
+
+    public BasicNMEAReplay(BasicNMEAParser parser) {
+        this(parser, DEFAULT_WINDOW_SIZE, BasicNMEAReader.DEFAULT_MAX_SENTENCE_LENGTH);
+    }
+
+    /**
+     * @param parser            parser receiving framed sentences
+     * @param windowSize        size of a single mapped window in bytes
+     * @param maxSentenceLength maximum length of a sentence without line terminator
+     */
+    public BasicNMEAReplay(BasicNMEAParser parser, int windowSize, int maxSentenceLength) {
+        if (parser == null) {
+            throw new NullPointerException();
+        }
+        if (maxSentenceLength <= 0 || windowSize <= maxSentenceLength + 2) {
+            throw new IllegalArgumentException("window must be larger than a sentence");
+        }
+
+        this.parser = parser;
+        this.windowSize = windowSize;
+        this.maxSentenceLength = maxSentenceLength;
+    }
+
+    /**
+     * Replays the whole file.
+     *
+     * @param file NMEA log
+     * @return throughput report of the replay
+     * @throws IOException if the file can't be mapped
+     */
+    public Report replay(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            return replay(channel, 0, channel.size());
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Replays a region of a file. The region is expected to start at a sentence boundary.
+     *
+     * @param channel  channel of the NMEA log
+     * @param position offset of the region
+     * @param size     length of the region in bytes
+     * @return throughput report of the replay
+     * @throws IOException if the region can't be mapped
+     */
+    public synchronized Report replay(FileChannel channel, long position, long size) throws IOException {
+        sentences = 0;
+        dropped = 0;
+        long start = System.nanoTime();
+        long end = position + size;
+
+        while (position < end) {
+            long length = Math.min(windowSize, end - position);
+            boolean last = position + length == end;
+            position += frame(channel.map(FileChannel.MapMode.READ_ONLY, position, length), last);
+        }
+
+        return new Report(size, sentences, dropped, System.nanoTime() - start);
+    }
+
+    /**
+     * Dispatches every complete frame of the window.
+     *
+     * @return number of bytes consumed, the start of a pending incomplete frame is left for the next window
+     */
+    private int frame(MappedByteBuffer window, boolean last) {
+        int limit = window.limit();
+        int start = -1;
+        for (int i = 0; i < limit; i++) {
+            byte b = window.get(i);
+            if (b == '$') {
+                if (start >= 0) {
+                    dropped++;
+                }
+                start = i;
+            } else if (start < 0) {
+                continue;
+            } else if (b == '\n') {
+                dispatch(window, start, i);
+                start = -1;
+            } else if (i - start > maxSentenceLength) {
+                dropped++;
+                start = -1;
+            }
+        }
+
+        if (start >= 0 && !last) {
+            return start;
+        } else if (start >= 0) {
+            dispatch(window, start, limit);
+        }
+        return limit;
+    }
+
+    private void dispatch(MappedByteBuffer window, int start, int end) {
+        if (end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        window.limit(end);
+        window.position(start);
+        parser.parse(window);
+        window.limit(window.capacity());
+        sentences++;
+    }
+
+    public static class Report {
+        private final long bytes;
+        private final long sentences;
+        private final long dropped;
+        private final long nanos;
+
+        Report(long bytes, long sentences, long dropped, long nanos) {
+            this.bytes = bytes;
+            this.sentences = sentences;
+            this.dropped = dropped;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return size of the replayed file
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return number of sentences passed to the parser
+         */
+        public long getSentences() {
+            return sentences;
+        }
+
+        /**
+         * @return number of truncated or over-long frames that were dropped
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * @return wall-clock duration of the replay in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return nanos;
+        }
+
+        public double getBytesPerSecond() {
+            return nanos == 0 ? 0.0 : bytes * 1e9 / nanos;
+        }
+
+        public double getSentencesPerSecond() {
+            return nanos == 0 ? 0.0 : sentences * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Report{" +
+                    "bytes=" + bytes +
+                    ", sentences=" + sentences +
+                    ", dropped=" + dropped +
+                    ", elapsedMs=" + nanos / 1000000 +
+                    ", MBps=" + String.format(Locale.US, "%.1f", getBytesPerSecond() / (1024 * 1024)) +
+                    ", sentencesPerSecond=" + String.format(Locale.US, "%.0f", getSentencesPerSecond()) +
+                    '}';
+        }
+    }
+}
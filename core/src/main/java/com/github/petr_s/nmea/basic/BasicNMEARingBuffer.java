@@ -0,0 +1,223 @@
+package com.github.petr_s.nmea.basic;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer/single-consumer queue of raw sentences between an I/O thread and a parsing thread.
+ * Sentences are copied into preallocated fixed-size slots, so neither side allocates or locks.
+ * The producer (e.g. a {@link BasicNMEAReader}) calls {@link #offer(byte[], int, int)} and finally {@link #close()},
+ * the consumer drains the slots into a {@link BasicNMEAParser} with {@link #drain(BasicNMEAParser, int)}
+ * or {@link #consume(BasicNMEAParser)}, every drain as one batch (see {@link BasicNMEAParser#parseBatch(byte[], int, int)}).
+ */
+public class BasicNMEARingBuffer {
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    private static final long PARK_NANOS = 100 * 1000;
+    private final byte[] data;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int slotSize;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead;
+    private volatile boolean closed;
+    private volatile long offered;
+    private volatile long dropped;
+
+    /**
+     * @param capacity          number of slots, a power of two
+     * @param maxSentenceLength size of a slot, longer sentences are dropped
+     * @param waitStrategy      how a side waits for the other one
+     * @param overflowPolicy    what the producer does when all slots are full
+     */
+    public BasicNMEARingBuffer(int capacity, int maxSentenceLength, WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+        if (waitStrategy == null || overflowPolicy == null) {
+            throw new NullPointerException();
+        }
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        if (maxSentenceLength <= 0) {
+            throw new IllegalArgumentException("sentence length must be positive");
+        }
+
+        this.data = new byte[capacity * maxSentenceLength];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            offsets[i] = i * maxSentenceLength;
+        }
+        this.slotSize = maxSentenceLength;
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Copies a sentence into the next free slot. Must be called by the producer thread only.
+     *
+     * @param buffer array holding the sentence
+     * @param offset index of the leading '$'
+     * @param length length of the sentence, without line terminator
+     * @return false if the sentence was dropped
+     */
+    public boolean offer(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (closed) {
+            throw new IllegalStateException("ring buffer is closed");
+        }
+
+        offered++;
+        long position = tail.get();
+        if (length > slotSize || !awaitSlot(position)) {
+            dropped++;
+            return false;
+        }
+
+        int slot = (int) position & mask;
+        System.arraycopy(buffer, offset, data, slot * slotSize, length);
+        lengths[slot] = length;
+        tail.lazySet(position + 1);
+        return true;
+    }
+
+    private boolean awaitSlot(long position) {
+        int capacity = mask + 1;
+        if (position - cachedHead < capacity) {
+            return true;
+        }
+        cachedHead = head.get();
+        while (position - cachedHead >= capacity) {
+            if (overflowPolicy == OverflowPolicy.DROP || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            waitStrategy.idle();
+            cachedHead = head.get();
+        }
+        return true;
+    }
+
+    /**
+     * Marks the end of the stream. Must be called by the producer thread once it stops offering.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Parses the queued sentences as one batch without waiting. Must be called by the consumer thread only.
+     *
+     * @param parser parser of the sentences
+     * @param limit  maximum number of sentences to parse
+     * @return number of parsed sentences
+     */
+    public int drain(BasicNMEAParser parser, int limit) {
+        long position = head.get();
+        int count = (int) Math.min(tail.get() - position, limit);
+        if (count <= 0) {
+            return 0;
+        }
+        try {
+            parser.parseBatch(data, offsets, lengths, (int) position & mask, count);
+        } finally {
+            head.lazySet(position + count);
+        }
+        return count;
+    }
+
+    /**
+     * Parses sentences in batches, waiting for new ones, until the ring buffer is closed and empty.
+     * Must be called by the consumer thread only.
+     *
+     * @param parser parser of the sentences
+     * @return number of parsed sentences
+     * @throws InterruptedException if interrupted while waiting for sentences
+     */
+    public long consume(BasicNMEAParser parser) throws InterruptedException {
+        long total = 0;
+        while (true) {
+            int parsed = drain(parser, DEFAULT_BATCH_SIZE);
+            if (parsed > 0) {
+                total += parsed;
+            } else if (closed && tail.get() == head.get()) {
+                return total;
+            } else if (Thread.interrupted()) {
+                throw new InterruptedException();
+            } else {
+                waitStrategy.idle();
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return number of sentences waiting to be parsed
+     */
+    public int getQueued() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * @return total number of sentences offered by the producer
+     */
+    public long getOffered() {
+        return offered;
+    }
+
+    /**
+     * @return total number of sentences dropped as too long or on overflow
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public enum WaitStrategy {
+        /**
+         * Spins on the other side, lowest latency at the cost of a busy core.
+         */
+        BUSY_SPIN {
+            @Override
+            void idle() {
+            }
+        },
+        /**
+         * Yields the processor between checks.
+         */
+        YIELD {
+            @Override
+            void idle() {
+                Thread.yield();
+            }
+        },
+        /**
+         * Parks the thread for 100 microseconds between checks, for battery powered devices.
+         */
+        PARK {
+            @Override
+            void idle() {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        };
+
+        abstract void idle();
+    }
+
+    public enum OverflowPolicy {
+        /**
+         * Drops the offered sentence, never stalls the producer.
+         */
+        DROP,
+        /**
+         * Waits for a free slot, unless the producer thread is interrupted.
+         */
+        BLOCK
+    }
+}
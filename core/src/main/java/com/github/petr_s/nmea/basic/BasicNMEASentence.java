@@ -0,0 +1,242 @@
+package com.github.petr_s.nmea.basic;
+
+import java.util.Arrays;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.Talker;
+
+/**
+ * Reusable view of a single sentence over the parsed bytes, passed to {@link BasicNMEASentenceHandler}.
+ * Field offsets are indexed up front, values are decoded only when a getter is called.
+ * Fields are numbered from 0 (the first field after the sentence type), missing fields read as empty.
+ * Getters of a malformed field throw {@link NumberFormatException} or {@link IllegalArgumentException}.
+ * The view is valid only during the callback.
+ */
+public class BasicNMEASentence {
+    public static final int RMC_TIME = 0;
+    public static final int RMC_STATUS = 1;
+    public static final int RMC_LATITUDE = 2;
+    public static final int RMC_LONGITUDE = 4;
+    public static final int RMC_SPEED = 6;
+    public static final int RMC_COURSE = 7;
+    public static final int RMC_DATE = 8;
+    public static final int RMC_MAGNETIC_VARIATION = 9;
+    public static final int RMC_FAA_MODE = 11;
+    public static final int GGA_TIME = 0;
+    public static final int GGA_LATITUDE = 1;
+    public static final int GGA_LONGITUDE = 3;
+    public static final int GGA_QUALITY = 5;
+    public static final int GGA_SATELLITES = 6;
+    public static final int GGA_HDOP = 7;
+    public static final int GGA_ALTITUDE = 8;
+    public static final int GGA_SEPARATION = 10;
+    public static final int GGA_DGPS_AGE = 12;
+    public static final int GGA_DGPS_STATION = 13;
+    private static final int TYPE_OFFSET = 1;
+    private static final int TYPE_LENGTH = 5;
+    private static final int FIELDS_OFFSET = TYPE_OFFSET + TYPE_LENGTH + 1;
+
+    private final SentenceTokenizer field = new SentenceTokenizer();
+    private byte[] buffer;
+    private int offset;
+    private int length;
+    private int[] separators = new int[32];
+    private int count;
+    private Talker talker;
+    private SentenceType type;
+
+    BasicNMEASentence() {
+    }
+
+    /**
+     * Indexes the fields of a well-formed sentence.
+     *
+     * @param end index of the checksum delimiter
+     */
+    void reset(byte[] buffer, int offset, int length, int end, Talker talker, SentenceType type) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.talker = talker;
+        this.type = type;
+
+        int start = offset + FIELDS_OFFSET;
+        separators[0] = start - 1;
+        count = 1;
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == ',') {
+                if (count == separators.length - 1) {
+                    separators = Arrays.copyOf(separators, separators.length * 2);
+                }
+                separators[count++] = i;
+            }
+        }
+        separators[count] = end;
+        field.reset(buffer, start, end);
+    }
+
+    /**
+     * @return talker of the sentence, or null if not supported
+     */
+    public Talker getTalker() {
+        return talker;
+    }
+
+    /**
+     * @return type of the sentence, or null if not supported
+     */
+    public SentenceType getType() {
+        return type;
+    }
+
+    /**
+     * Compares the sentence type without allocation.
+     *
+     * @param type five characters long sentence type, e.g. "GPZDA"
+     * @return true if the sentence is of the given type
+     */
+    public boolean isType(String type) {
+        if (type.length() != TYPE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < type.length(); i++) {
+            if (buffer[offset + TYPE_OFFSET + i] != type.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getFieldCount() {
+        return count;
+    }
+
+    public boolean isEmpty(int index) {
+        select(index);
+        return field.isEmpty();
+    }
+
+    public int getInt(int index) {
+        select(index);
+        return checked(field.parseInt());
+    }
+
+    public int getInt(int index, int defaultValue) {
+        select(index);
+        return field.isEmpty() ? defaultValue : checked(field.parseInt());
+    }
+
+    public float getFloat(int index) {
+        return (float) getDouble(index);
+    }
+
+    public float getFloat(int index, float defaultValue) {
+        select(index);
+        return field.isEmpty() ? defaultValue : (float) checked(field.parseDouble());
+    }
+
+    public double getDouble(int index) {
+        select(index);
+        return checked(field.parseDouble());
+    }
+
+    /**
+     * @param allowed characters accepted in the field
+     */
+    public char getChar(int index, String allowed) {
+        select(index);
+        return (char) checked(field.parseChar(allowed));
+    }
+
+    public char getChar(int index, String allowed, char defaultValue) {
+        select(index);
+        return field.isEmpty() ? defaultValue : (char) checked(field.parseChar(allowed));
+    }
+
+    /**
+     * Reads a ddmm.mmmm latitude followed by its N/S hemisphere.
+     *
+     * @return angle in degrees, negative on the southern hemisphere
+     */
+    public double getLatitude(int index) {
+        select(index);
+        double latitude = checked(field.parseCoordinate(2));
+        return getChar(index + 1, "NS") == 'N' ? latitude : -latitude;
+    }
+
+    /**
+     * Reads a dddmm.mmmm longitude followed by its E/W hemisphere.
+     *
+     * @return angle in degrees, negative on the western hemisphere
+     */
+    public double getLongitude(int index) {
+        select(index);
+        double longitude = checked(field.parseCoordinate(3));
+        return getChar(index + 1, "EW") == 'E' ? longitude : -longitude;
+    }
+
+    /**
+     * @return milliseconds since midnight of a hhmmss.sss field
+     */
+    public long getTime(int index) {
+        select(index);
+        return checked(field.parseTime());
+    }
+
+    /**
+     * @return milliseconds since midnight, January 1, 1970 UTC of a ddmmyy field
+     */
+    public long getDate(int index) {
+        select(index);
+        return checked(field.parseDate());
+    }
+
+    /**
+     * Allocates a new String, prefer the typed getters.
+     *
+     * @return raw content of the field
+     */
+    public String getString(int index) {
+        select(index);
+        return field.text();
+    }
+
+    private int checked(int value) {
+        if (field.failed()) {
+            throw field.exception();
+        }
+        return value;
+    }
+
+    private long checked(long value) {
+        if (field.failed()) {
+            throw field.exception();
+        }
+        return value;
+    }
+
+    private double checked(double value) {
+        if (field.failed()) {
+            throw field.exception();
+        }
+        return value;
+    }
+
+    private void select(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("field " + index);
+        } else if (index < count) {
+            field.select(separators[index] + 1, separators[index + 1]);
+        } else {
+            field.select(separators[count], separators[count]);
+        }
+    }
+
+    /**
+     * @return the whole sentence
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, offset, length, BasicNMEAParser.US_ASCII);
+    }
+}
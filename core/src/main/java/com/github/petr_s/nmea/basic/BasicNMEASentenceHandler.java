@@ -0,0 +1,16 @@
+package com.github.petr_s.nmea.basic;
+
+/**
+ * Extension of {@link BasicNMEAHandler} receiving every sentence as a lazily decoded {@link BasicNMEASentence}.
+ * When the handler implements it, the parser calls {@link #onSentence(BasicNMEASentence)} for every
+ * well-formed sentence with a valid checksum, including unsupported sentence types, instead of
+ * decoding it and calling the typed callbacks such as {@link #onRMC}.
+ */
+public interface BasicNMEASentenceHandler extends BasicNMEAHandler {
+    /***
+     * Called on a sentence with a valid checksum.
+     *
+     * @param sentence view of the sentence, reused by the parser and valid only during the call
+     */
+    void onSentence(BasicNMEASentence sentence);
+}
@@ -0,0 +1,382 @@
+package com.github.petr_s.nmea.basic;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+
+/**
+ * Counters of the sentences decoded by {@link BasicNMEAParser} and a histogram of their decoding latency,
+ * enabled by {@link BasicNMEAParser#setStats(BasicNMEAStats)}.
+ * <p>
+ * Counters are lock-free, so the stats may be shared by several parsers and read from any thread.
+ * The histogram has a fixed size: latencies are counted in buckets of 8 per power of two,
+ * so percentiles are accurate to 12.5%. {@link #snapshot()} copies everything at once.
+ */
+public class BasicNMEAStats implements BasicNMEAStatsMXBean {
+    private static final SentenceType[] TYPES = SentenceType.values();
+    private static final int UNRECOGNIZED = TYPES.length;
+    private static final int BAD_CHECKSUMS = UNRECOGNIZED + 1;
+    private static final int MALFORMED = BAD_CHECKSUMS + 1;
+    private static final int EXCEPTIONS = MALFORMED + 1;
+    private static final int SKIPPED = EXCEPTIONS + 1;
+    private static final int COUNTERS = SKIPPED + 1;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTERS);
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+    private volatile BasicNMEAEpoch epoch;
+
+    public BasicNMEAStats() {
+    }
+
+    /**
+     * @param epoch epoch whose assembly counts are included in the snapshots, may be null
+     */
+    public BasicNMEAStats(BasicNMEAEpoch epoch) {
+        this.epoch = epoch;
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return highest latency counted in the bucket
+     */
+    static long highest(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    void recordSentence(SentenceType type) {
+        counters.incrementAndGet(type.ordinal());
+    }
+
+    void recordUnrecognized() {
+        counters.incrementAndGet(UNRECOGNIZED);
+    }
+
+    void recordBadChecksum() {
+        counters.incrementAndGet(BAD_CHECKSUMS);
+    }
+
+    void recordMalformed() {
+        counters.incrementAndGet(MALFORMED);
+    }
+
+    void recordException() {
+        counters.incrementAndGet(EXCEPTIONS);
+    }
+
+    void recordSkipped() {
+        counters.incrementAndGet(SKIPPED);
+    }
+
+    void recordLatency(long nanos) {
+        latencies.incrementAndGet(bucket(nanos));
+    }
+
+    /**
+     * @param epoch epoch whose assembly counts are included in the snapshots, or null for none
+     */
+    public void setEpoch(BasicNMEAEpoch epoch) {
+        this.epoch = epoch;
+    }
+
+    public BasicNMEAEpoch getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Zeroes the counters and the histogram. Counts recorded concurrently may be partially lost,
+     * the counts of the epoch are not affected.
+     */
+    public void reset() {
+        for (int i = 0; i < COUNTERS; i++) {
+            counters.set(i, 0);
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            latencies.set(i, 0);
+        }
+    }
+
+    /**
+     * @return copy of the counters and the histogram. Counts recorded concurrently may be included only partially.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[COUNTERS];
+        for (int i = 0; i < COUNTERS; i++) {
+            counts[i] = counters.get(i);
+        }
+        long[] buckets = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = latencies.get(i);
+        }
+        BasicNMEAEpoch epoch = this.epoch;
+        return epoch == null ? new Snapshot(counts, buckets, 0, 0, 0)
+                : new Snapshot(counts, buckets, epoch.getEpochs(), epoch.getCompleted(), epoch.getDropped());
+    }
+
+    @Override
+    public long getRMC() {
+        return counters.get(SentenceType.RMC.ordinal());
+    }
+
+    @Override
+    public long getGGA() {
+        return counters.get(SentenceType.GGA.ordinal());
+    }
+
+    @Override
+    public long getGSV() {
+        return counters.get(SentenceType.GSV.ordinal());
+    }
+
+    @Override
+    public long getGSA() {
+        return counters.get(SentenceType.GSA.ordinal());
+    }
+
+    @Override
+    public long getUnrecognized() {
+        return counters.get(UNRECOGNIZED);
+    }
+
+    @Override
+    public long getBadChecksums() {
+        return counters.get(BAD_CHECKSUMS);
+    }
+
+    @Override
+    public long getMalformed() {
+        return counters.get(MALFORMED);
+    }
+
+    @Override
+    public long getExceptions() {
+        return counters.get(EXCEPTIONS);
+    }
+
+    @Override
+    public long getSkipped() {
+        return counters.get(SKIPPED);
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return snapshot().getLatencyP50Nanos();
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return snapshot().getLatencyP99Nanos();
+    }
+
+    @Override
+    public long getLatencyP999Nanos() {
+        return snapshot().getLatencyP999Nanos();
+    }
+
+    @Override
+    public long getEpochs() {
+        BasicNMEAEpoch epoch = this.epoch;
+        return epoch == null ? 0 : epoch.getEpochs();
+    }
+
+    @Override
+    public long getCompletedEpochs() {
+        BasicNMEAEpoch epoch = this.epoch;
+        return epoch == null ? 0 : epoch.getCompleted();
+    }
+
+    @Override
+    public long getDroppedEpochs() {
+        BasicNMEAEpoch epoch = this.epoch;
+        return epoch == null ? 0 : epoch.getDropped();
+    }
+
+    public static class Snapshot {
+        private final long[] counts;
+        private final long[] buckets;
+        private final long latencies;
+        private final long epochs;
+        private final long completedEpochs;
+        private final long droppedEpochs;
+
+        Snapshot(long[] counts, long[] buckets, long epochs, long completedEpochs, long droppedEpochs) {
+            this.counts = counts;
+            this.buckets = buckets;
+            long latencies = 0;
+            for (long count : buckets) {
+                latencies += count;
+            }
+            this.latencies = latencies;
+            this.epochs = epochs;
+            this.completedEpochs = completedEpochs;
+            this.droppedEpochs = droppedEpochs;
+        }
+
+        /**
+         * @return number of sentences of the type passed to the handler
+         */
+        public long getSentences(SentenceType type) {
+            return counts[type.ordinal()];
+        }
+
+        /**
+         * @return number of sentences reported by {@link BasicNMEAHandler#onUnrecognized(String)},
+         * or of an unsupported type passed to a {@link BasicNMEASentenceHandler}
+         */
+        public long getUnrecognized() {
+            return counts[UNRECOGNIZED];
+        }
+
+        /**
+         * @return number of sentences reported by {@link BasicNMEAHandler#onBadChecksum(int, int)}
+         */
+        public long getBadChecksums() {
+            return counts[BAD_CHECKSUMS];
+        }
+
+        /**
+         * @return number of sentences with a malformed field, reported by
+         * {@link BasicNMEAErrorHandler#onError(SentenceType, int, BasicNMEAErrorHandler.FieldError)}
+         * or {@link BasicNMEAHandler#onException(Exception)}
+         */
+        public long getMalformed() {
+            return counts[MALFORMED];
+        }
+
+        /**
+         * @return number of other sentences reported by {@link BasicNMEAHandler#onException(Exception)},
+         * e.g. when a callback threw
+         */
+        public long getExceptions() {
+            return counts[EXCEPTIONS];
+        }
+
+        /**
+         * @return number of sentences skipped because they were not subscribed
+         */
+        public long getSkipped() {
+            return counts[SKIPPED];
+        }
+
+        /**
+         * @return number of all sentences, including the skipped ones
+         */
+        public long getTotal() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * @return number of decoded sentences in the latency histogram, i.e. all but the skipped ones
+         */
+        public long getLatencyCount() {
+            return latencies;
+        }
+
+        /**
+         * @param quantile quantile between 0 and 1, e.g. 0.99
+         * @return upper bound of the decoding latency of the given quantile of sentences, or 0 if none was decoded
+         */
+        public long getLatencyNanos(double quantile) {
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("quantile must be between 0 and 1");
+            }
+            if (latencies == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(quantile * latencies));
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                count += buckets[i];
+                if (count >= rank) {
+                    return highest(i);
+                }
+            }
+            return highest(buckets.length - 1);
+        }
+
+        public long getLatencyP50Nanos() {
+            return getLatencyNanos(0.5);
+        }
+
+        public long getLatencyP99Nanos() {
+            return getLatencyNanos(0.99);
+        }
+
+        public long getLatencyP999Nanos() {
+            return getLatencyNanos(0.999);
+        }
+
+        /**
+         * @return upper bound of the highest decoding latency, or 0 if none was decoded
+         */
+        public long getMaxLatencyNanos() {
+            for (int i = buckets.length - 1; i >= 0; i--) {
+                if (buckets[i] != 0) {
+                    return highest(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return number of emitted epochs of the bound {@link BasicNMEAEpoch}, see {@link BasicNMEAEpoch#getEpochs()}
+         */
+        public long getEpochs() {
+            return epochs;
+        }
+
+        /**
+         * @return see {@link BasicNMEAEpoch#getCompleted()}
+         */
+        public long getCompletedEpochs() {
+            return completedEpochs;
+        }
+
+        /**
+         * @return see {@link BasicNMEAEpoch#getDropped()}
+         */
+        public long getDroppedEpochs() {
+            return droppedEpochs;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" +
+                    "rmc=" + getSentences(SentenceType.RMC) +
+                    ", gga=" + getSentences(SentenceType.GGA) +
+                    ", gsv=" + getSentences(SentenceType.GSV) +
+                    ", gsa=" + getSentences(SentenceType.GSA) +
+                    ", unrecognized=" + getUnrecognized() +
+                    ", badChecksums=" + getBadChecksums() +
+                    ", malformed=" + getMalformed() +
+                    ", exceptions=" + getExceptions() +
+                    ", skipped=" + getSkipped() +
+                    ", p50=" + getLatencyP50Nanos() +
+                    ", p99=" + getLatencyP99Nanos() +
+                    ", p999=" + getLatencyP999Nanos() +
+                    ", epochs=" + epochs +
+                    ", droppedEpochs=" + droppedEpochs +
+                    '}';
+        }
+    }
+}
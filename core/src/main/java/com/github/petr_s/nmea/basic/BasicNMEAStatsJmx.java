@@ -0,0 +1,40 @@
+package com.github.petr_s.nmea.basic;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Exports {@link BasicNMEAStats} to the platform MBean server.
+ * Kept apart from the stats, so that they don't need {@code javax.management}, which Android lacks.
+ */
+public final class BasicNMEAStatsJmx {
+    public static final String DOMAIN = "com.github.petr_s.nmea";
+
+    private BasicNMEAStatsJmx() {
+    }
+
+    /**
+     * @param stats stats to export
+     * @param name  value of the name key, e.g. the device of the parser
+     * @return name of the registered MXBean, {@code com.github.petr_s.nmea:type=BasicNMEAStats,name=<name>}
+     * @throws JMException if the name is invalid or already registered
+     */
+    public static ObjectName register(BasicNMEAStats stats, String name) throws JMException {
+        if (stats == null || name == null) {
+            throw new NullPointerException();
+        }
+
+        ObjectName objectName = new ObjectName(DOMAIN + ":type=BasicNMEAStats,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(stats, objectName);
+        return objectName;
+    }
+
+    /**
+     * @param objectName name returned by {@link #register(BasicNMEAStats, String)}
+     * @throws JMException if the name is not registered
+     */
+    public static void unregister(ObjectName objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+}
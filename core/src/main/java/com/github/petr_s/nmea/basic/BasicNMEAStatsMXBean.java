@@ -0,0 +1,36 @@
+package com.github.petr_s.nmea.basic;
+
+/**
+ * Management interface of {@link BasicNMEAStats}, registered by {@link BasicNMEAStatsJmx}.
+ */
+public interface BasicNMEAStatsMXBean {
+    long getRMC();
+
+    long getGGA();
+
+    long getGSV();
+
+    long getGSA();
+
+    long getUnrecognized();
+
+    long getBadChecksums();
+
+    long getMalformed();
+
+    long getExceptions();
+
+    long getSkipped();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyP999Nanos();
+
+    long getEpochs();
+
+    long getCompletedEpochs();
+
+    long getDroppedEpochs();
+}
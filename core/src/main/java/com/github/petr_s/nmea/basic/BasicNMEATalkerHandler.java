@@ -0,0 +1,15 @@
+package com.github.petr_s.nmea.basic;
+
+/**
+ * Extension of {@link BasicNMEAHandler} receiving the talker of every decoded sentence.
+ * When the handler implements it, the parser calls {@link #onTalker(Talker)} right before
+ * the sentence callbacks, e.g. before {@link #onRMC} of a GNRMC sentence.
+ */
+public interface BasicNMEATalkerHandler extends BasicNMEAHandler {
+    /***
+     * Called before the callbacks of a decoded sentence.
+     *
+     * @param talker talker of the sentence {@link Talker}
+     */
+    void onTalker(Talker talker);
+}
@@ -0,0 +1,35 @@
+package com.github.petr_s.nmea.basic;
+
+/**
+ * Helpers for satellite PRN bitmasks passed to {@link BasicNMEAMaskHandler}.
+ * PRN n is stored as bit (n &amp; 63) of word n / 64.
+ */
+public final class PrnMask {
+    public static final int MAX_PRN = 1023;
+    public static final int WORDS = (MAX_PRN + 1) / 64;
+
+    private PrnMask() {
+    }
+
+    /**
+     * @param mask bitmask of PRNs
+     * @param prn  pseudo-random noise number
+     * @return true if the PRN is set
+     */
+    public static boolean contains(long[] mask, int prn) {
+        int word = prn >>> 6;
+        return word < mask.length && (mask[word] & (1L << prn)) != 0;
+    }
+
+    /**
+     * @param mask bitmask of PRNs
+     * @return number of PRNs set
+     */
+    public static int count(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
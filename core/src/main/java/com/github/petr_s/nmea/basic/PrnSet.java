@@ -0,0 +1,88 @@
+package com.github.petr_s.nmea.basic;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only set of satellite PRNs backed by a bitmask.
+ * Adding a PRN and testing membership neither boxes nor allocates.
+ */
+class PrnSet extends AbstractSet<Integer> {
+    private final long[] words = new long[PrnMask.WORDS];
+    private int size;
+
+    void reset() {
+        Arrays.fill(words, 0L);
+        size = 0;
+    }
+
+    void set(int prn) {
+        if (prn < 0 || prn > PrnMask.MAX_PRN) {
+            throw new IllegalArgumentException("prn out of range " + prn);
+        }
+        int word = prn >>> 6;
+        long bit = 1L << prn;
+        if ((words[word] & bit) == 0) {
+            words[word] |= bit;
+            size++;
+        }
+    }
+
+    void set(long[] mask) {
+        System.arraycopy(mask, 0, words, 0, words.length);
+        size = PrnMask.count(words);
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && PrnMask.contains(words, (Integer) o);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int next = nextPrn(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int prn = next;
+                next = nextPrn(prn + 1);
+                return prn;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private int nextPrn(int from) {
+        for (int word = from >>> 6; word < words.length; word++) {
+            long bits = word == from >>> 6 ? words[word] & (-1L << from) : words[word];
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,382 @@
+package com.github.petr_s.nmea.basic;
+
+import java.nio.ByteBuffer;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAErrorHandler.FieldError;
+
+/**
+ * Single-pass reader of comma separated NMEA fields.
+ * Fields are decoded in place from ASCII bytes of an array or a direct buffer,
+ * without regular expressions or intermediate Strings.
+ * A malformed field doesn't throw, the value methods return 0 and the first error is kept
+ * until the next {@link #reset} or {@link #select}, see {@link #failed()}.
+ */
+class SentenceTokenizer {
+    private static final char SEPARATOR = ',';
+    private static final int MAX_DIGITS = 18;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final int CENTURY_PIVOT = 80;
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private byte[] buffer;
+    private ByteBuffer direct;
+    private int position;
+    private int end;
+    private int fieldStart;
+    private int fieldEnd;
+    private int field;
+    private FieldError error;
+    private int errorField;
+    private int errorStart;
+    private int errorEnd;
+    private int cachedDate = -1;
+    private long cachedDateMillis;
+
+    /**
+     * Prepares the tokenizer for the content of a sentence.
+     *
+     * @param buffer ASCII bytes of the sentence
+     * @param start  index of the first field
+     * @param end    index after the last field (position of the checksum delimiter)
+     */
+    void reset(byte[] buffer, int start, int end) {
+        this.buffer = buffer;
+        this.direct = null;
+        this.position = start;
+        this.end = end;
+        this.field = -1;
+        this.error = null;
+    }
+
+    /**
+     * Prepares the tokenizer for the content of a sentence read with absolute gets.
+     *
+     * @param buffer ASCII bytes of the sentence
+     * @param start  index of the first field
+     * @param end    index after the last field (position of the checksum delimiter)
+     */
+    void reset(ByteBuffer buffer, int start, int end) {
+        this.buffer = null;
+        this.direct = buffer;
+        this.position = start;
+        this.end = end;
+        this.field = -1;
+        this.error = null;
+    }
+
+    private byte at(int index) {
+        return direct == null ? buffer[index] : direct.get(index);
+    }
+
+    private String text(int start, int end) {
+        return direct == null ? new String(buffer, start, end - start, BasicNMEAParser.US_ASCII)
+                : BasicNMEAParser.text(direct, start, end - start);
+    }
+
+    /**
+     * Selects a single field to be decoded by the value methods.
+     *
+     * @param start index of the first byte of the field
+     * @param end   index after the last byte of the field
+     */
+    void select(int start, int end) {
+        this.fieldStart = start;
+        this.fieldEnd = end;
+        this.error = null;
+    }
+
+    /**
+     * @return true if a field failed to decode since the last reset
+     */
+    boolean failed() {
+        return error != null;
+    }
+
+    /**
+     * @return error of the first field that failed to decode, or null
+     */
+    FieldError error() {
+        return error;
+    }
+
+    /**
+     * @return index of the first field that failed to decode
+     */
+    int errorField() {
+        return errorField;
+    }
+
+    /**
+     * Marks the current field as failed, unless a field already failed.
+     *
+     * @return 0, the value of a failed field
+     */
+    int fail(FieldError error) {
+        if (this.error == null) {
+            this.error = error;
+            this.errorField = field;
+            this.errorStart = fieldStart;
+            this.errorEnd = fieldEnd;
+        }
+        return 0;
+    }
+
+    /**
+     * @return exception describing the error, for callers expecting one
+     */
+    IllegalArgumentException exception() {
+        if (error == FieldError.MISSING) {
+            return new NumberFormatException("missing value");
+        }
+        String text = text(errorStart, errorEnd);
+        if (error == FieldError.INVALID_CHAR || error == FieldError.OUT_OF_RANGE) {
+            return new IllegalArgumentException("unexpected value '" + text + "'");
+        }
+        return new NumberFormatException("invalid number '" + text + "'");
+    }
+
+    boolean hasNext() {
+        return position <= end;
+    }
+
+    void skip() {
+        advance();
+    }
+
+    int nextInt() {
+        advance();
+        return parseInt();
+    }
+
+    int nextInt(int defaultValue) {
+        advance();
+        return isEmpty() ? defaultValue : parseInt();
+    }
+
+    float nextFloat() {
+        advance();
+        return (float) parseDouble();
+    }
+
+    float nextFloat(float defaultValue) {
+        advance();
+        return isEmpty() ? defaultValue : (float) parseDouble();
+    }
+
+    char nextChar(String allowed) {
+        advance();
+        return parseChar(allowed);
+    }
+
+    char nextChar(String allowed, char defaultValue) {
+        advance();
+        return isEmpty() ? defaultValue : parseChar(allowed);
+    }
+
+    double nextCoordinate(int degreeDigits) {
+        advance();
+        return parseCoordinate(degreeDigits);
+    }
+
+    long nextTime() {
+        advance();
+        return parseTime();
+    }
+
+    long nextDate() {
+        advance();
+        return parseDate();
+    }
+
+    /**
+     * Reads a (d)ddmm.mmmm coordinate.
+     *
+     * @param degreeDigits number of leading digits holding degrees
+     * @return angle in degrees
+     */
+    double parseCoordinate(int degreeDigits) {
+        if (isEmpty()) {
+            return fail(FieldError.MISSING);
+        }
+        if (fieldEnd - fieldStart <= degreeDigits) {
+            return fail(FieldError.INVALID_COORDINATE);
+        }
+        int degrees = parseDigits(fieldStart, fieldStart + degreeDigits);
+        double minutes = decimal(fieldStart + degreeDigits);
+        if (degrees < 0 || Double.isNaN(minutes)) {
+            return fail(FieldError.INVALID_COORDINATE);
+        }
+        return degrees + minutes / 60.0;
+    }
+
+    /**
+     * Reads a hhmmss.sss UTC time.
+     *
+     * @return milliseconds since midnight
+     */
+    long parseTime() {
+        int length = fieldEnd - fieldStart;
+        if (length == 0) {
+            return fail(FieldError.MISSING);
+        }
+        if (length < 6 || (length > 6 && at(fieldStart + 6) != '.')) {
+            return fail(FieldError.INVALID_TIME);
+        }
+        int hours = parseDigits(fieldStart, fieldStart + 2);
+        int minutes = parseDigits(fieldStart + 2, fieldStart + 4);
+        int seconds = parseDigits(fieldStart + 4, fieldStart + 6);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+            return fail(FieldError.INVALID_TIME);
+        }
+        int millis = 0;
+        int scale = 100;
+        for (int i = fieldStart + 7; i < fieldEnd; i++) {
+            int digit = at(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return fail(FieldError.INVALID_TIME);
+            }
+            millis += digit * scale;
+            scale /= 10;
+        }
+
+        return ((hours * 60L + minutes) * 60L + seconds) * 1000L + millis;
+    }
+
+    /**
+     * Reads a ddmmyy UTC date. Two digit years below 80 belong to the 21st century.
+     * The last decoded date is cached, as it rarely changes between sentences.
+     *
+     * @return milliseconds since midnight, January 1, 1970 UTC.
+     */
+    long parseDate() {
+        if (isEmpty()) {
+            return fail(FieldError.MISSING);
+        }
+        int date = fieldEnd - fieldStart == 6 ? parseDigits(fieldStart, fieldEnd) : -1;
+        if (date < 0) {
+            return fail(FieldError.INVALID_DATE);
+        }
+        if (date != cachedDate) {
+            int day = date / 10000;
+            int month = date / 100 % 100;
+            int year = date % 100;
+            if (day < 1 || day > 31 || month < 1 || month > 12) {
+                return fail(FieldError.INVALID_DATE);
+            }
+            year += year < CENTURY_PIVOT ? 2000 : 1900;
+            cachedDateMillis = epochDay(year, month, day) * DAY_MILLIS;
+            cachedDate = date;
+        }
+
+        return cachedDateMillis;
+    }
+
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    String text() {
+        return text(fieldStart, fieldEnd);
+    }
+
+    private void advance() {
+        field++;
+        if (position > end) {
+            fieldStart = fieldEnd = end;
+            return;
+        }
+
+        int i = position;
+        while (i < end && at(i) != SEPARATOR) {
+            i++;
+        }
+        fieldStart = position;
+        fieldEnd = i;
+        position = i + 1;
+    }
+
+    boolean isEmpty() {
+        return fieldStart == fieldEnd;
+    }
+
+    int parseInt() {
+        if (isEmpty()) {
+            return fail(FieldError.MISSING);
+        }
+        int value = fieldEnd - fieldStart > 9 ? -1 : parseDigits(fieldStart, fieldEnd);
+        return value < 0 ? fail(FieldError.INVALID_NUMBER) : value;
+    }
+
+    /**
+     * @return value of at most 9 digits, or -1 if there is another character
+     */
+    private int parseDigits(int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = at(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    double parseDouble() {
+        if (isEmpty()) {
+            return fail(FieldError.MISSING);
+        }
+        boolean negative = at(fieldStart) == '-';
+        double value = decimal(negative ? fieldStart + 1 : fieldStart);
+        if (Double.isNaN(value)) {
+            return fail(FieldError.INVALID_NUMBER);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @param from index of the first character of the number
+     * @return value of an unsigned decimal number up to the end of the field, or NaN if it's malformed
+     */
+    private double decimal(int from) {
+        int i = from;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < fieldEnd; i++) {
+            int c = at(i);
+            if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c >= '0' && c <= '9' && digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0 || scale == 0) {
+            return Double.NaN;
+        }
+
+        return scale > 0 ? mantissa / POW10[scale] : mantissa;
+    }
+
+    char parseChar(String allowed) {
+        if (isEmpty()) {
+            return (char) fail(FieldError.MISSING);
+        }
+        if (fieldEnd - fieldStart != 1 || allowed.indexOf(at(fieldStart)) < 0) {
+            return (char) fail(FieldError.INVALID_CHAR);
+        }
+        return (char) at(fieldStart);
+    }
+}
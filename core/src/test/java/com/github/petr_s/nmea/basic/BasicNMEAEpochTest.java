@@ -0,0 +1,103 @@
+package com.github.petr_s.nmea.basic;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAEpoch.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BasicNMEAEpochTest {
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() throws Exception {
+        new BasicNMEAEpoch(null, 0, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorTimeout() throws Exception {
+        new BasicNMEAEpoch(Policy.TIMEOUT, -1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testComplete() throws Exception {
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch();
+
+        assertEquals(START, epoch.open(1000));
+        assertFalse(epoch.add(1000, RMC));
+        assertTrue(epoch.isPending());
+        assertEquals(CONTINUE, epoch.open(1000));
+        assertTrue(epoch.add(1000, GGA));
+        assertFalse(epoch.isPending());
+
+        assertEquals(START, epoch.open(2000));
+        assertFalse(epoch.add(2000, GGA));
+        assertEquals(DISCARD, epoch.open(3000));
+        assertFalse(epoch.add(3000, GGA));
+        assertFalse(epoch.expired());
+
+        assertEquals(1, epoch.getEpochs());
+        assertEquals(1, epoch.getCompleted());
+        assertEquals(1, epoch.getDropped());
+        assertTrue(epoch.getLastLatencyNanos() >= 0);
+        assertEquals(epoch.getLastLatencyNanos(), epoch.getMaxLatencyNanos());
+        assertEquals(epoch.getLastLatencyNanos(), epoch.getMeanLatencyNanos());
+    }
+
+    @Test
+    public void testFirst() throws Exception {
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(Policy.FIRST, 0, TimeUnit.SECONDS);
+
+        assertEquals(START, epoch.open(1000));
+        assertTrue(epoch.add(1000, GGA));
+        assertTrue(epoch.isPending());
+        assertEquals(COPY, epoch.open(1000));
+        assertTrue(epoch.add(1000, RMC));
+        assertFalse(epoch.isPending());
+
+        assertEquals(START, epoch.open(2000));
+        assertTrue(epoch.add(2000, RMC));
+        assertEquals(START, epoch.open(3000));
+        assertTrue(epoch.add(3000, RMC));
+
+        assertEquals(3, epoch.getEpochs());
+        assertEquals(1, epoch.getCompleted());
+        assertEquals(0, epoch.getDropped());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(Policy.TIMEOUT, 0, TimeUnit.SECONDS);
+
+        assertEquals(START, epoch.open(1000));
+        assertFalse(epoch.add(1000, RMC));
+        assertTrue(epoch.expired());
+        assertFalse(epoch.expired());
+        assertEquals(COPY, epoch.open(1000));
+        assertTrue(epoch.add(1000, GGA));
+
+        assertEquals(START, epoch.open(2000));
+        assertFalse(epoch.add(2000, RMC));
+        assertEquals(EMIT, epoch.open(3000));
+        assertFalse(epoch.add(3000, RMC));
+
+        assertEquals(2, epoch.getEpochs());
+        assertEquals(1, epoch.getCompleted());
+        assertEquals(0, epoch.getDropped());
+    }
+
+    @Test
+    public void testTimeoutNotExpired() throws Exception {
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(Policy.TIMEOUT, 1, TimeUnit.HOURS);
+
+        assertEquals(START, epoch.open(1000));
+        assertFalse(epoch.add(1000, GGA));
+        assertFalse(epoch.expired());
+        assertTrue(epoch.add(1000, RMC));
+
+        assertEquals(1, epoch.getEpochs());
+        assertEquals(1, epoch.getCompleted());
+    }
+}
@@ -0,0 +1,251 @@
+package com.github.petr_s.nmea.basic;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.FixQuality;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.FixType;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.Talker;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BasicNMEAFixAssemblerTest {
+    private static final double DELTA = 1e-4;
+    private static final String RMC = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38";
+    private static final String GGA = "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F";
+    private static final String GSA = "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B";
+    private static final String GGA_NEXT = "$GPGGA,163408.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*50";
+
+    FixHandler handler;
+    BasicNMEAParser parser;
+
+    @Before
+    public void setUp() {
+        handler = new FixHandler();
+        parser = new BasicNMEAParser(new BasicNMEAFixAssembler(handler));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() throws Exception {
+        new BasicNMEAFixAssembler(null);
+    }
+
+    @Test
+    public void testRMCGGA() throws Exception {
+        parser.parse(RMC);
+        assertEquals(0, handler.fixes.size());
+        parser.parse(GGA);
+
+        assertEquals(1, handler.fixes.size());
+        BasicNMEAFix fix = handler.fixes.get(0);
+        assertEquals(1460997247000L, fix.getTime());
+        assertEquals(50.07914, fix.getLatitude(), DELTA);
+        assertEquals(14.39825, fix.getLongitude(), DELTA);
+        assertEquals(240.2f, fix.getAltitude(), DELTA);
+        assertEquals(0.020577f, fix.getSpeed(), DELTA);
+        assertEquals(36.97f, fix.getBearing(), DELTA);
+        assertEquals(1.7f, fix.getHdop(), DELTA);
+        assertEquals(FixQuality.GPS, fix.getQuality());
+        assertEquals(7, fix.getSatellites());
+        assertEquals(2, handler.rmc + handler.gga);
+        assertEquals(2, handler.finished);
+    }
+
+    @Test
+    public void testGGARMC() throws Exception {
+        parser.parse(GGA);
+        parser.parse(RMC);
+
+        assertEquals(1, handler.fixes.size());
+        assertEquals(1460997247000L, handler.fixes.get(0).getTime());
+    }
+
+    @Test
+    public void testDiffTime() throws Exception {
+        parser.parse(RMC);
+        parser.parse(GGA_NEXT);
+        parser.parse(RMC);
+
+        assertEquals(0, handler.fixes.size());
+    }
+
+    @Test
+    public void testSameSentence() throws Exception {
+        parser.parse(GGA);
+        parser.parse(GGA);
+
+        assertEquals(0, handler.fixes.size());
+    }
+
+    @Test
+    public void testPolicyFirst() throws Exception {
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(BasicNMEAEpoch.Policy.FIRST, 0, TimeUnit.SECONDS);
+        parser = new BasicNMEAParser(new BasicNMEAFixAssembler(handler, epoch));
+
+        parser.parse(RMC);
+        assertEquals(1, handler.fixes.size());
+        BasicNMEAFix partial = handler.fixes.get(0);
+        assertFalse(partial.isComplete());
+        assertEquals(1460997247000L, partial.getTime());
+        assertEquals(50.07914, partial.getLatitude(), DELTA);
+        assertEquals(14.39825, partial.getLongitude(), DELTA);
+        assertEquals(0.0f, partial.getAltitude(), DELTA);
+
+        parser.parse(GGA);
+        assertEquals(2, handler.fixes.size());
+        BasicNMEAFix complete = handler.fixes.get(1);
+        assertTrue(complete.isComplete());
+        assertEquals(240.2f, complete.getAltitude(), DELTA);
+        assertEquals(2, epoch.getEpochs() + epoch.getCompleted());
+    }
+
+    @Test
+    public void testPolicyTimeout() throws Exception {
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(BasicNMEAEpoch.Policy.TIMEOUT, 0, TimeUnit.SECONDS);
+        BasicNMEAFixAssembler assembler = new BasicNMEAFixAssembler(handler, epoch);
+        parser = new BasicNMEAParser(assembler);
+
+        parser.parse(GGA_NEXT);
+        assertEquals(1, handler.fixes.size());
+        assertFalse(handler.fixes.get(0).isComplete());
+        assertEquals(0L, handler.fixes.get(0).getTime());
+        assertEquals(240.2f, handler.fixes.get(0).getAltitude(), DELTA);
+
+        assembler.poll();
+        parser.parse(RMC);
+        assertEquals(2, handler.fixes.size());
+        assertEquals(1460997247000L, handler.fixes.get(1).getTime());
+        assertEquals(0.0f, handler.fixes.get(1).getAltitude(), DELTA);
+        assertEquals(2, epoch.getEpochs());
+        assertEquals(0, epoch.getCompleted());
+    }
+
+    @Test
+    public void testGGADate() throws Exception {
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(BasicNMEAEpoch.Policy.FIRST, 0, TimeUnit.SECONDS);
+        parser = new BasicNMEAParser(new BasicNMEAFixAssembler(handler, epoch));
+
+        parser.parse(RMC);
+        parser.parse(GGA);
+        parser.parse(GGA_NEXT);
+        parser.parse("$GPRMC,235959.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*3E");
+        parser.parse("$GPGGA,000000.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*58");
+
+        assertEquals(5, handler.fixes.size());
+        assertEquals(1460997247000L, handler.fixes.get(1).getTime());
+        assertEquals(1460997248000L, handler.fixes.get(2).getTime());
+        assertEquals(1461024000000L, handler.fixes.get(4).getTime());
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            parser.parse(RMC);
+            parser.parse(GGA);
+        }
+
+        assertEquals(3, handler.fixes.size());
+        assertEquals(1, handler.instances.size());
+    }
+
+    @Test
+    public void testError() throws Exception {
+        parser.parse(RMC);
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,9,07,1.7,285.7,M,45.5,M,,0000*57");
+
+        assertEquals(0, handler.fixes.size());
+        assertEquals(1, handler.exceptions.size());
+        assertEquals("out of range in field 5 of GGA", handler.exceptions.get(0).getMessage());
+    }
+
+    @Test
+    public void testGSASet() throws Exception {
+        parser.parse(GSA);
+
+        assertEquals(new HashSet<>(Arrays.asList(2, 5, 12, 21, 25, 26, 29, 31)), handler.prns);
+    }
+
+    @Test
+    public void testExtensions() throws Exception {
+        ExtendedFixHandler handler = new ExtendedFixHandler();
+        parser = new BasicNMEAParser(new BasicNMEAFixAssembler(handler));
+        parser.parse(RMC);
+        parser.parse("$GNGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*41");
+        parser.parse(GSA);
+
+        assertEquals(Arrays.asList(Talker.GP, Talker.GN, Talker.GP), handler.talkers);
+        assertEquals(8, handler.mask);
+        assertNull(handler.prns);
+        assertEquals(1, handler.fixes.size());
+    }
+
+    private static class FixHandler extends BasicNMEAAdapter implements BasicNMEAFixHandler {
+        final List<BasicNMEAFix> fixes = new ArrayList<>();
+        final List<BasicNMEAFix> instances = new ArrayList<>();
+        final List<Exception> exceptions = new ArrayList<>();
+        int rmc;
+        int gga;
+        int finished;
+        Set<Integer> prns;
+
+        @Override
+        public void onFix(BasicNMEAFix fix) {
+            fixes.add(new BasicNMEAFix(fix));
+            if (instances.isEmpty()) {
+                instances.add(fix);
+            } else {
+                assertSame(instances.get(0), fix);
+            }
+        }
+
+        @Override
+        public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+            rmc++;
+        }
+
+        @Override
+        public void onException(Exception e) {
+            exceptions.add(e);
+        }
+
+        @Override
+        public void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop) {
+            gga++;
+        }
+
+        @Override
+        public void onGSA(FixType type, Set<Integer> prns, float pdop, float hdop, float vdop) {
+            this.prns = prns;
+        }
+
+        @Override
+        public void onFinished() {
+            finished++;
+        }
+    }
+
+    private static class ExtendedFixHandler extends FixHandler implements BasicNMEATalkerHandler, BasicNMEAMaskHandler {
+        final List<Talker> talkers = new ArrayList<>();
+        int mask;
+
+        @Override
+        public void onTalker(Talker talker) {
+            talkers.add(talker);
+        }
+
+        @Override
+        public void onGSA(FixType type, long[] prns, float pdop, float hdop, float vdop) {
+            mask = PrnMask.count(prns);
+        }
+    }
+}
@@ -0,0 +1,922 @@
+package com.github.petr_s.nmea.basic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.petr_s.nmea.Helper.eq;
+import static com.github.petr_s.nmea.Helper.roughlyEq;
+import static com.github.petr_s.nmea.basic.BasicNMEAErrorHandler.FieldError;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.FixType.Fix3D;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.Talker;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Matchers.doubleThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.floatThat;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BasicNMEAParserTest {
+    @Spy
+    BasicNMEAHandler handler = new BasicNMEAAdapter();
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() throws Exception {
+        new BasicNMEAParser(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testParseNullSentence() throws Exception {
+        new BasicNMEAParser(handler).parse((String) null);
+    }
+
+    @Test
+    public void testParseEmpty() throws Exception {
+        new BasicNMEAParser(handler).parse("");
+
+        verify(handler).onStart();
+        verify(handler).onUnrecognized("");
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMC() throws Exception {
+        String sentence = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1460937600000L),
+                eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMC_2_3() throws Exception {
+        String sentence = "$GPRMC,093933.40,A,5004.52493,N,01424.28771,E,0.277,,130616,,,A*76";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1465776000000L),
+                eq(34773400L),
+                doubleThat(roughlyEq(50.075415)),
+                doubleThat(roughlyEq(14.404795)),
+                floatThat(roughlyEq(0.142501f)),
+                floatThat(roughlyEq(0.0f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMCBytes() throws Exception {
+        byte[] bytes = "xx$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38\r\n".getBytes("US-ASCII");
+        new BasicNMEAParser(handler).parse(bytes, 2, bytes.length - 4);
+
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1460937600000L),
+                eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMCHeapByteBuffer() throws Exception {
+        byte[] bytes = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38".getBytes("US-ASCII");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        new BasicNMEAParser(handler).parse(buffer);
+
+        assertEquals(0, buffer.remaining());
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1460937600000L),
+                eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMCDirectByteBuffer() throws Exception {
+        byte[] bytes = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38".getBytes("US-ASCII");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        new BasicNMEAParser(handler).parse(buffer);
+
+        assertEquals(0, buffer.remaining());
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1460937600000L),
+                eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseDirectByteBufferSlice() throws Exception {
+        byte[] bytes = ("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*42\n" +
+                "$GPXXX,1,2,3*53\n" +
+                "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.x4,36.97,180416,,*70\n").getBytes("US-ASCII");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                buffer.limit(i).position(start);
+                parser.parse(buffer);
+                buffer.limit(buffer.capacity());
+                start = i + 1;
+            }
+        }
+
+        verify(handler).onBadChecksum(66, 56);
+        verify(handler).onUnrecognized("$GPXXX,1,2,3*53");
+        ArgumentCaptor<Exception> exception = ArgumentCaptor.forClass(Exception.class);
+        verify(handler).onException(exception.capture());
+        assertEquals("invalid number '0.x4'", exception.getValue().getMessage());
+        verify(handler, times(3)).onStart();
+        verify(handler, times(3)).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseDirectByteBufferSubscribed() throws Exception {
+        byte[] bytes = "$GPGSV,3,1,12,01,05,060,18,02,17,259,43,04,56,287,28,09,08,277,28*77".getBytes("US-ASCII");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        parser.subscribe(EnumSet.of(SentenceType.RMC), EnumSet.allOf(Talker.class), true);
+        parser.parse(buffer);
+
+        assertEquals(0, buffer.remaining());
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseBytesUnrecognized() throws Exception {
+        byte[] bytes = "$GPXXX,1,2,3*53".getBytes("US-ASCII");
+        new BasicNMEAParser(handler).parse(bytes, 0, bytes.length);
+
+        verify(handler).onStart();
+        verify(handler).onUnrecognized("$GPXXX,1,2,3*53");
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMCVoid() throws Exception {
+        String sentence = "$GPRMC,163407.000,V,,,,,,,180416,,*22";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onUnrecognized(sentence);
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMCLeapDay() throws Exception {
+        String sentence = "$GPRMC,235959.999,A,5004.7485,N,01423.8956,E,0.04,36.97,290216,,*33";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1456704000000L),
+                eq(86399999L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMCConcurrent() throws Exception {
+        final String[] sentences = {
+                "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38",
+                "$GPRMC,093933.40,A,5004.52493,N,01424.28771,E,0.277,,130616,,,A*76"};
+        final long[] timestamps = {1460937600000L + 59647000L, 1465776000000L + 34773400L};
+        final AtomicInteger errors = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+            threads[i] = new Thread(new Runnable() {
+                int expected;
+
+                @Override
+                public void run() {
+                    BasicNMEAParser parser = new BasicNMEAParser(new BasicNMEAAdapter() {
+                        @Override
+                        public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+                            if (date + time != timestamps[expected]) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    });
+                    for (int j = 0; j < 10000; j++) {
+                        expected = (j + offset) % 2;
+                        parser.parse(sentences[expected]);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, errors.get());
+    }
+
+    @Test
+    public void testParseGPRMCBadChecksum() throws Exception {
+        String sentence = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*42";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onBadChecksum(66, 56);
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseMalformedBadChecksum() throws Exception {
+        String sentence = "$GPGGA,garbage*00";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onBadChecksum(0, 15);
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPRMCEOL() throws Exception {
+        String sentence = "\n$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*42";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onUnrecognized(sentence);
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPGGA() throws Exception {
+        String sentence = "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onGGA(eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(240.2f)),
+                eq(BasicNMEAHandler.FixQuality.GPS),
+                eq(7),
+                floatThat(roughlyEq(1.7f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPGGASouthWest() throws Exception {
+        String sentence = "$GPGGA,163407.000,5004.7485,S,01423.8956,W,2,12,0.9,-12.5,M,3.5,M,1.2,0031*56";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onGGA(eq(59647000L),
+                doubleThat(roughlyEq(-50.07914)),
+                doubleThat(roughlyEq(-14.39825)),
+                floatThat(roughlyEq(-16.0f)),
+                eq(BasicNMEAHandler.FixQuality.DGPS),
+                eq(12),
+                floatThat(roughlyEq(0.9f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPGSVSingle() throws Exception {
+        String sentence = "$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onGSV(eq(11),
+                eq(0),
+                eq(29),
+                eq(86.0f),
+                eq(273.0f),
+                eq(30));
+        verify(handler).onGSV(eq(11),
+                eq(1),
+                eq(25),
+                eq(60.0f),
+                eq(110.0f),
+                eq(38));
+        verify(handler).onGSV(eq(11),
+                eq(2),
+                eq(31),
+                eq(52.0f),
+                eq(278.0f),
+                eq(47));
+        verify(handler).onGSV(eq(11),
+                eq(3),
+                eq(2),
+                eq(28.0f),
+                eq(50.0f),
+                eq(39));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPGSVFull() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        parser.parse("$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D");
+        parser.parse("$GPGSV,3,2,11,12,23,110,34,26,18,295,29,21,17,190,30,05,11,092,25*72");
+        parser.parse("$GPGSV,3,3,11,14,02,232,13,23,02,346,12,20,01,135,13*48");
+
+        verify(handler, times(3)).onStart();
+        verify(handler).onGSV(eq(11),
+                eq(0),
+                eq(29),
+                eq(86.0f),
+                eq(273.0f),
+                eq(30));
+        verify(handler).onGSV(eq(11),
+                eq(1),
+                eq(25),
+                eq(60.0f),
+                eq(110.0f),
+                eq(38));
+        verify(handler).onGSV(eq(11),
+                eq(2),
+                eq(31),
+                eq(52.0f),
+                eq(278.0f),
+                eq(47));
+        verify(handler).onGSV(eq(11),
+                eq(3),
+                eq(2),
+                eq(28.0f),
+                eq(50.0f),
+                eq(39));
+        verify(handler).onGSV(eq(11),
+                eq(4),
+                eq(12),
+                eq(23.0f),
+                eq(110.0f),
+                eq(34));
+        verify(handler).onGSV(eq(11),
+                eq(5),
+                eq(26),
+                eq(18.0f),
+                eq(295.0f),
+                eq(29));
+        verify(handler).onGSV(eq(11),
+                eq(6),
+                eq(21),
+                eq(17.0f),
+                eq(190.0f),
+                eq(30));
+        verify(handler).onGSV(eq(11),
+                eq(7),
+                eq(5),
+                eq(11.0f),
+                eq(92.0f),
+                eq(25));
+        verify(handler).onGSV(eq(11),
+                eq(8),
+                eq(14),
+                eq(2.0f),
+                eq(232.0f),
+                eq(13));
+        verify(handler).onGSV(eq(11),
+                eq(9),
+                eq(23),
+                eq(2.0f),
+                eq(346.0f),
+                eq(12));
+        verify(handler).onGSV(eq(11),
+                eq(10),
+                eq(20),
+                eq(1.0f),
+                eq(135.0f),
+                eq(13));
+        verify(handler, times(3)).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPGSVNoSnr() throws Exception {
+        String sentence = "$GPGSV,3,3,11,14,02,232,,23,02,346,12*7C";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onGSV(eq(11),
+                eq(8),
+                eq(14),
+                eq(2.0f),
+                eq(232.0f),
+                eq(0));
+        verify(handler).onGSV(eq(11),
+                eq(9),
+                eq(23),
+                eq(2.0f),
+                eq(346.0f),
+                eq(12));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPGSA() throws Exception {
+        String sentence = "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onGSA(eq(Fix3D),
+                argThat(eq(new HashSet<>(Arrays.asList(new Integer[]{2, 5, 21, 25, 26, 12, 29, 31})))),
+                floatThat(roughlyEq(1.6f)),
+                floatThat(roughlyEq(1.0f)),
+                floatThat(roughlyEq(1.3f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGPGSAMask() throws Exception {
+        BasicNMEAMaskHandler maskHandler = spy(new MaskAdapter());
+        new BasicNMEAParser(maskHandler).parse("$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B");
+
+        ArgumentCaptor<long[]> prns = ArgumentCaptor.forClass(long[].class);
+        verify(maskHandler).onStart();
+        verify(maskHandler).onGSA(eq(Fix3D),
+                prns.capture(),
+                floatThat(roughlyEq(1.6f)),
+                floatThat(roughlyEq(1.0f)),
+                floatThat(roughlyEq(1.3f)));
+        verify(maskHandler).onFinished();
+        verifyNoMoreInteractions(maskHandler);
+
+        assertEquals(8, PrnMask.count(prns.getValue()));
+        for (int prn : new int[]{2, 5, 21, 25, 26, 12, 29, 31}) {
+            assertTrue(PrnMask.contains(prns.getValue(), prn));
+        }
+        assertFalse(PrnMask.contains(prns.getValue(), 3));
+    }
+
+    @Test
+    public void testParseReuseGPGSA() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(handler, true);
+        parser.parse("$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B");
+        parser.parse("$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B");
+
+        verify(handler, times(2)).onStart();
+        verify(handler, times(2)).onGSA(eq(Fix3D),
+                argThat(eq(new HashSet<>(Arrays.asList(new Integer[]{2, 5, 21, 25, 26, 12, 29, 31})))),
+                floatThat(roughlyEq(1.6f)),
+                floatThat(roughlyEq(1.0f)),
+                floatThat(roughlyEq(1.3f)));
+        verify(handler, times(2)).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseNoAllocation() throws Exception {
+        String[] sentences = {
+                "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38",
+                "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F",
+                "$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D",
+                "$GPGSV,3,2,11,12,23,110,34,26,18,295,29,21,17,190,30,05,11,092,25*72",
+                "$GPGSV,3,3,11,14,02,232,13,23,02,346,12,20,01,135,13*48",
+                "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B",
+                "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*42"};
+        AllocationCounter counter = AllocationCounter.create();
+        assumeTrue(counter != null);
+        BasicNMEAParser parser = new BasicNMEAParser(new BasicNMEAAdapter(), true);
+
+        long allocated = 0;
+        for (int round = 0; round < 20; round++) {
+            long start = counter.bytes();
+            long overhead = counter.bytes() - start;
+            start = counter.bytes();
+            for (int i = 0; i < 1000; i++) {
+                for (String sentence : sentences) {
+                    parser.parse(sentence);
+                }
+            }
+            allocated = counter.bytes() - start - overhead;
+        }
+
+        assertEquals(0, allocated);
+    }
+
+    /**
+     * Reads the bytes allocated by the current thread, if the JVM supports it.
+     * Accessed reflectively since java.lang.management isn't part of android.jar.
+     */
+    private static class AllocationCounter {
+        private final Object bean;
+        private final Method method;
+        private final Object[] arguments;
+
+        private AllocationCounter(Object bean, Method method) {
+            this.bean = bean;
+            this.method = method;
+            this.arguments = new Object[]{Thread.currentThread().getId()};
+        }
+
+        static AllocationCounter create() {
+            try {
+                Object bean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+                Method method = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+                AllocationCounter counter = new AllocationCounter(bean, method);
+                for (int i = 0; i < 100; i++) {
+                    counter.bytes();
+                }
+                return counter.bytes() >= 0 ? counter : null;
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        long bytes() {
+            try {
+                return (Long) method.invoke(bean, arguments);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Test
+    public void testParseConfined() throws Exception {
+        new BasicNMEAParser(handler, false, false).parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1460937600000L),
+                eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseGNRMC() throws Exception {
+        new BasicNMEAParser(handler).parse("$GNRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*26");
+
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1460937600000L),
+                eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseTalker() throws Exception {
+        BasicNMEATalkerHandler talkerHandler = spy(new TalkerAdapter());
+        BasicNMEAParser parser = new BasicNMEAParser(talkerHandler);
+        parser.parse("$GLGSV,1,1,02,65,45,120,33,66,10,300,*64");
+        parser.parse("$GNGSA,A,3,65,66,,,,,,,,,,,1.6,1.0,1.3*2B");
+
+        InOrder inOrder = inOrder(talkerHandler);
+        inOrder.verify(talkerHandler).onStart();
+        inOrder.verify(talkerHandler).onTalker(Talker.GL);
+        inOrder.verify(talkerHandler).onGSV(2, 0, 65, 45.0f, 120.0f, 33);
+        inOrder.verify(talkerHandler).onGSV(2, 1, 66, 10.0f, 300.0f, 0);
+        inOrder.verify(talkerHandler).onFinished();
+        inOrder.verify(talkerHandler).onStart();
+        inOrder.verify(talkerHandler).onTalker(Talker.GN);
+        inOrder.verify(talkerHandler).onGSA(eq(Fix3D),
+                argThat(eq(new HashSet<>(Arrays.asList(new Integer[]{65, 66})))),
+                floatThat(roughlyEq(1.6f)),
+                floatThat(roughlyEq(1.0f)),
+                floatThat(roughlyEq(1.3f)));
+        inOrder.verify(talkerHandler).onFinished();
+        verifyNoMoreInteractions(talkerHandler);
+    }
+
+    @Test
+    public void testParseUnknownTalker() throws Exception {
+        String sentence = "$XXRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*2F";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onUnrecognized(sentence);
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseUnknownFormatter() throws Exception {
+        String sentence = "$GPZDA,163407.00,18,04,2016,00,00*69";
+        new BasicNMEAParser(handler).parse(sentence);
+
+        verify(handler).onStart();
+        verify(handler).onUnrecognized(sentence);
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testSubscribe() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        parser.subscribe(EnumSet.of(SentenceType.RMC), EnumSet.of(Talker.GP), false);
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+        parser.parse("$GNRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*26");
+        parser.parse("$GPZDA,163407.00,18,04,2016,00,00*69");
+        parser.parse("$GPGGA,garbage*00");
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+
+        verify(handler).onStart();
+        verify(handler).onRMC(eq(1460937600000L),
+                eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testSubscribeChecksum() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        parser.subscribe(EnumSet.of(SentenceType.RMC), EnumSet.allOf(Talker.class), true);
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+        parser.parse("$GPGGA,garbage*00");
+
+        verify(handler).onStart();
+        verify(handler).onBadChecksum(0, 15);
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testSubscribeAll() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        parser.subscribe(EnumSet.noneOf(SentenceType.class), EnumSet.noneOf(Talker.class), false);
+        parser.subscribeAll();
+        parser.parse("$GPZDA,163407.00,18,04,2016,00,00*69");
+
+        verify(handler).onStart();
+        verify(handler).onUnrecognized("$GPZDA,163407.00,18,04,2016,00,00*69");
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseBatchBytes() throws Exception {
+        byte[] bytes = ("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38\r\n\r\n" +
+                "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F\n" +
+                "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*42").getBytes("US-ASCII");
+        int sentences = new BasicNMEAParser(handler).parseBatch(bytes, 0, bytes.length);
+
+        assertEquals(3, sentences);
+        InOrder inOrder = inOrder(handler);
+        inOrder.verify(handler).onStart();
+        inOrder.verify(handler).onRMC(eq(1460937600000L),
+                eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(0.02057f)),
+                floatThat(roughlyEq(36.97f)));
+        inOrder.verify(handler).onGGA(eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(240.2f)),
+                eq(BasicNMEAHandler.FixQuality.GPS),
+                eq(7),
+                floatThat(roughlyEq(1.7f)));
+        inOrder.verify(handler).onBadChecksum(66, 56);
+        inOrder.verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseBatchStrings() throws Exception {
+        int sentences = new BasicNMEAParser(handler).parseBatch(Arrays.asList(
+                "$GPXXX,1,2,3*53",
+                "$GPGSA,A,1,,,,,,,,,,,,,,,*1E",
+                "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B"));
+
+        assertEquals(3, sentences);
+        InOrder inOrder = inOrder(handler);
+        inOrder.verify(handler).onStart();
+        inOrder.verify(handler).onUnrecognized("$GPXXX,1,2,3*53");
+        inOrder.verify(handler).onException(any(NumberFormatException.class));
+        inOrder.verify(handler).onGSA(eq(Fix3D),
+                argThat(eq(new HashSet<>(Arrays.asList(new Integer[]{2, 5, 21, 25, 26, 12, 29, 31})))),
+                floatThat(roughlyEq(1.6f)),
+                floatThat(roughlyEq(1.0f)),
+                floatThat(roughlyEq(1.3f)));
+        inOrder.verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testStats() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        BasicNMEAStats stats = new BasicNMEAStats();
+        parser.setStats(stats);
+        parser.parseBatch(Arrays.asList(
+                "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38",
+                "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F",
+                "$GPXXX,1,2,3*53",
+                "$GPGSA,A,1,,,,,,,,,,,,,,,*1E",
+                "$GPGGA,garbage*00",
+                "garbage"));
+        parser.subscribe(EnumSet.of(SentenceType.RMC), EnumSet.allOf(Talker.class), false);
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+
+        BasicNMEAStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(1, snapshot.getSentences(SentenceType.RMC));
+        assertEquals(1, snapshot.getSentences(SentenceType.GGA));
+        assertEquals(0, snapshot.getSentences(SentenceType.GSV));
+        assertEquals(0, snapshot.getSentences(SentenceType.GSA));
+        assertEquals(2, snapshot.getUnrecognized());
+        assertEquals(1, snapshot.getBadChecksums());
+        assertEquals(1, snapshot.getMalformed());
+        assertEquals(0, snapshot.getExceptions());
+        assertEquals(1, snapshot.getSkipped());
+        assertEquals(7, snapshot.getTotal());
+        assertEquals(6, snapshot.getLatencyCount());
+        assertTrue(snapshot.getLatencyP50Nanos() <= snapshot.getLatencyP99Nanos());
+        assertTrue(snapshot.getLatencyP99Nanos() <= snapshot.getMaxLatencyNanos());
+    }
+
+    @Test
+    public void testStatsDisabled() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        BasicNMEAStats stats = new BasicNMEAStats();
+        parser.setStats(stats);
+        assertEquals(stats, parser.getStats());
+        parser.setStats(null);
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+
+        assertEquals(null, parser.getStats());
+        assertEquals(0, stats.snapshot().getTotal());
+        assertEquals(0, stats.snapshot().getLatencyCount());
+    }
+
+    @Test
+    public void testStatsSentenceHandler() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(mock(BasicNMEASentenceHandler.class));
+        BasicNMEAStats stats = new BasicNMEAStats();
+        parser.setStats(stats);
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+        parser.parse("$GPZDA,163407.00,18,04,2016,00,00*69");
+
+        assertEquals(1, stats.getRMC());
+        assertEquals(1, stats.getUnrecognized());
+    }
+
+    @Test
+    public void testParseError() throws Exception {
+        BasicNMEAErrorHandler errorHandler = spy(new ErrorAdapter());
+        BasicNMEAParser parser = new BasicNMEAParser(errorHandler);
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,9,07,1.7,285.7,M,45.5,M,,0000*57");
+        parser.parse("$GPRMC,163407.000,A,50x4.7485,N,01423.8956,E,0.04,36.97,180416,,*70");
+        parser.parse("$GPRMC,163407.000,X,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*21");
+        parser.parse("$GPGSA,A,1,,,,,,,,,,,,,,,*1E");
+
+        verify(errorHandler, times(4)).onStart();
+        verify(errorHandler).onError(SentenceType.GGA, 5, FieldError.OUT_OF_RANGE);
+        verify(errorHandler).onError(SentenceType.RMC, 2, FieldError.INVALID_COORDINATE);
+        verify(errorHandler).onError(SentenceType.RMC, 1, FieldError.INVALID_CHAR);
+        verify(errorHandler).onError(SentenceType.GSA, 14, FieldError.MISSING);
+        verify(errorHandler, times(4)).onFinished();
+        verifyNoMoreInteractions(errorHandler);
+    }
+
+    @Test
+    public void testParseErrorCoordinateSign() throws Exception {
+        BasicNMEAErrorHandler errorHandler = spy(new ErrorAdapter());
+        new BasicNMEAParser(errorHandler).parse("$GPRMC,163407.000,A,50-4.7485,N,01423.8956,E,0.04,36.97,180416,,*25");
+
+        verify(errorHandler).onError(SentenceType.RMC, 2, FieldError.INVALID_COORDINATE);
+        verify(errorHandler, never()).onRMC(anyLong(), anyLong(), anyDouble(), anyDouble(), anyFloat(), anyFloat());
+    }
+
+    @Test
+    public void testParseErrorTimeRange() throws Exception {
+        BasicNMEAErrorHandler errorHandler = spy(new ErrorAdapter());
+        BasicNMEAParser parser = new BasicNMEAParser(errorHandler);
+        parser.parse("$GPRMC,243407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*39");
+        parser.parse("$GPGGA,166007.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5E");
+        parser.parse("$GPGGA,163460.000,5004.7485,N,01423.8956,E,1,07,1.7,-285.7,M,45.5,M,,0000*73");
+
+        verify(errorHandler).onError(SentenceType.RMC, 0, FieldError.INVALID_TIME);
+        verify(errorHandler, times(2)).onError(SentenceType.GGA, 0, FieldError.INVALID_TIME);
+    }
+
+    @Test
+    public void testParseNegative() throws Exception {
+        new BasicNMEAParser(handler).parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,-285.7,M,45.5,M,,0000*72");
+
+        verify(handler).onGGA(eq(59647000L),
+                doubleThat(roughlyEq(50.07914)),
+                doubleThat(roughlyEq(14.39825)),
+                floatThat(roughlyEq(-331.2f)),
+                eq(BasicNMEAHandler.FixQuality.GPS),
+                eq(7),
+                floatThat(roughlyEq(1.7f)));
+    }
+
+    @Test
+    public void testParseErrorGSV() throws Exception {
+        BasicNMEAErrorHandler errorHandler = spy(new ErrorAdapter());
+        new BasicNMEAParser(errorHandler).parse("$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,5a,278,47,02,28,050,39*2E");
+
+        InOrder inOrder = inOrder(errorHandler);
+        inOrder.verify(errorHandler).onStart();
+        inOrder.verify(errorHandler).onError(SentenceType.GSV, 12, FieldError.INVALID_NUMBER);
+        inOrder.verify(errorHandler).onFinished();
+        verifyNoMoreInteractions(errorHandler);
+    }
+
+    @Test
+    public void testParseErrorGSVRange() throws Exception {
+        BasicNMEAErrorHandler errorHandler = spy(new ErrorAdapter());
+        BasicNMEAParser parser = new BasicNMEAParser(errorHandler);
+        parser.parse("$GPGSV,3,4,11,29,86,273,30*4E");
+        parser.parse("$GPGSV,1,1,01,29,86,273,30,25,60,110,38*72");
+
+        InOrder inOrder = inOrder(errorHandler);
+        inOrder.verify(errorHandler).onError(SentenceType.GSV, 1, FieldError.OUT_OF_RANGE);
+        inOrder.verify(errorHandler).onError(SentenceType.GSV, 7, FieldError.OUT_OF_RANGE);
+        verify(errorHandler, never()).onGSV(anyInt(), anyInt(), anyInt(), anyFloat(), anyFloat(), anyInt());
+    }
+
+    @Test
+    public void testParseErrorException() throws Exception {
+        BasicNMEAParser parser = new BasicNMEAParser(handler);
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,9,07,1.7,285.7,M,45.5,M,,0000*57");
+        parser.parse("$GPRMC,163407.000,A,50x4.7485,N,01423.8956,E,0.04,36.97,180416,,*70");
+
+        ArgumentCaptor<Exception> exceptions = ArgumentCaptor.forClass(Exception.class);
+        verify(handler, times(2)).onException(exceptions.capture());
+        assertEquals(IllegalArgumentException.class, exceptions.getAllValues().get(0).getClass());
+        assertEquals("unexpected value '9'", exceptions.getAllValues().get(0).getMessage());
+        assertEquals(NumberFormatException.class, exceptions.getAllValues().get(1).getClass());
+        assertEquals("invalid number '50x4.7485'", exceptions.getAllValues().get(1).getMessage());
+    }
+
+    public static class TalkerAdapter extends BasicNMEAAdapter implements BasicNMEATalkerHandler {
+        @Override
+        public void onTalker(Talker talker) {
+
+        }
+    }
+
+    public static class MaskAdapter extends BasicNMEAAdapter implements BasicNMEAMaskHandler {
+        @Override
+        public void onGSA(FixType type, long[] prns, float pdop, float hdop, float vdop) {
+
+        }
+    }
+
+    public static class ErrorAdapter extends BasicNMEAAdapter implements BasicNMEAErrorHandler {
+        @Override
+        public void onError(SentenceType type, int field, FieldError error) {
+
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.petr_s.nmea.basic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BasicNMEAReaderTest {
+    private static final String RMC = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38";
+    private static final String GGA = "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F";
+    private static final String GSA = "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B";
+
+    @Spy
+    BasicNMEAHandler handler = new BasicNMEAAdapter();
+
+    private static InputStream stream(String data) throws Exception {
+        return new ByteArrayInputStream(data.getBytes("US-ASCII"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() throws Exception {
+        new BasicNMEAReader((BasicNMEAParser) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorSmallBuffer() throws Exception {
+        new BasicNMEAReader(new BasicNMEAParser(handler), 82, 82);
+    }
+
+    @Test
+    public void testReadLines() throws Exception {
+        BasicNMEAReader reader = new BasicNMEAReader(new BasicNMEAParser(handler));
+
+        assertEquals(3, reader.read(stream(RMC + "\r\n" + GGA + "\n" + GSA)));
+
+        InOrder inOrder = inOrder(handler);
+        inOrder.verify(handler).onStart();
+        inOrder.verify(handler).onRMC(anyLong(), anyLong(), anyDouble(), anyDouble(), anyFloat(), anyFloat());
+        inOrder.verify(handler).onGGA(anyLong(), anyDouble(), anyDouble(), anyFloat(), any(BasicNMEAHandler.FixQuality.class), anyInt(), anyFloat());
+        inOrder.verify(handler).onFinished();
+        inOrder.verify(handler).onStart();
+        inOrder.verify(handler).onGSA(any(BasicNMEAHandler.FixType.class), anySetOf(Integer.class), anyFloat(), anyFloat(), anyFloat());
+        inOrder.verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testReadGarbage() throws Exception {
+        BasicNMEAReader reader = new BasicNMEAReader(new BasicNMEAParser(handler));
+
+        assertEquals(2, reader.read(stream("\u0000ÿgarbage\r\n$GPRMC,1634" + RMC + "\r\nnoise" + GGA + "\r\n")));
+        assertEquals(1, reader.getDropped());
+
+        verify(handler).onRMC(anyLong(), anyLong(), anyDouble(), anyDouble(), anyFloat(), anyFloat());
+        verify(handler).onGGA(anyLong(), anyDouble(), anyDouble(), anyFloat(), any(BasicNMEAHandler.FixQuality.class), anyInt(), anyFloat());
+        verify(handler).onStart();
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testReadTooLong() throws Exception {
+        BasicNMEAReader reader = new BasicNMEAReader(new BasicNMEAParser(handler), 128, 82);
+        StringBuilder data = new StringBuilder("$GPXXX");
+        for (int i = 0; i < 100; i++) {
+            data.append(",0");
+        }
+        data.append("\r\n").append(RMC).append("\r\n");
+
+        assertEquals(1, reader.read(stream(data.toString())));
+        assertEquals(1, reader.getDropped());
+
+        verify(handler).onRMC(anyLong(), anyLong(), anyDouble(), anyDouble(), anyFloat(), anyFloat());
+        verify(handler).onStart();
+        verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testReadSmallBuffer() throws Exception {
+        BasicNMEAReader reader = new BasicNMEAReader(new BasicNMEAParser(handler), 100, 82);
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            data.append(RMC).append("\r\n").append(GSA).append("\r\n");
+        }
+
+        assertEquals(100, reader.read(stream(data.toString())));
+        assertEquals(100, reader.getSentences());
+        assertEquals(0, reader.getDropped());
+
+        verify(handler, times(50)).onRMC(anyLong(), anyLong(), anyDouble(), anyDouble(), anyFloat(), anyFloat());
+        verify(handler, times(50)).onGSA(any(BasicNMEAHandler.FixType.class), anySetOf(Integer.class), anyFloat(), anyFloat(), anyFloat());
+        verify(handler, times(100)).onStart();
+        verify(handler, times(100)).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.petr_s.nmea.basic;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BasicNMEAReplayTest {
+    private static final String RMC = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38";
+    private static final String GSA = "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Spy
+    BasicNMEAHandler handler = new BasicNMEAAdapter();
+
+    private File write(String data) throws Exception {
+        File file = folder.newFile();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data.getBytes("US-ASCII"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() throws Exception {
+        new BasicNMEAReplay(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorSmallWindow() throws Exception {
+        new BasicNMEAReplay(new BasicNMEAParser(handler), 82, 82);
+    }
+
+    @Test
+    public void testReplayEmpty() throws Exception {
+        BasicNMEAReplay.Report report = new BasicNMEAReplay(new BasicNMEAParser(handler)).replay(write(""));
+
+        assertEquals(0, report.getBytes());
+        assertEquals(0, report.getSentences());
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testReplayWindows() throws Exception {
+        StringBuilder data = new StringBuilder("garbage");
+        for (int i = 0; i < 50; i++) {
+            data.append(RMC).append("\r\n").append(GSA).append("\n");
+        }
+        data.append("$GPRMC,1634").append(RMC);
+        File file = write(data.toString());
+
+        BasicNMEAReplay.Report report = new BasicNMEAReplay(new BasicNMEAParser(handler), 100, 82).replay(file);
+
+        assertEquals(file.length(), report.getBytes());
+        assertEquals(101, report.getSentences());
+        assertEquals(1, report.getDropped());
+        verify(handler, times(51)).onRMC(anyLong(), anyLong(), anyDouble(), anyDouble(), anyFloat(), anyFloat());
+        verify(handler, times(50)).onGSA(any(BasicNMEAHandler.FixType.class), anySetOf(Integer.class), anyFloat(), anyFloat(), anyFloat());
+        verify(handler, times(101)).onStart();
+        verify(handler, times(101)).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.petr_s.nmea.basic;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BasicNMEARingBufferTest {
+    private static final String RMC = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38";
+    private static final String GGA = "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F";
+
+    @Spy
+    BasicNMEAHandler handler = new BasicNMEAAdapter();
+
+    private static boolean offer(BasicNMEARingBuffer ring, String sentence) throws Exception {
+        byte[] bytes = sentence.getBytes("US-ASCII");
+        return ring.offer(bytes, 0, bytes.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorCapacity() throws Exception {
+        new BasicNMEARingBuffer(3, 82, BasicNMEARingBuffer.WaitStrategy.YIELD, BasicNMEARingBuffer.OverflowPolicy.DROP);
+    }
+
+    @Test
+    public void testDrain() throws Exception {
+        BasicNMEARingBuffer ring = new BasicNMEARingBuffer(4, 82,
+                BasicNMEARingBuffer.WaitStrategy.YIELD, BasicNMEARingBuffer.OverflowPolicy.DROP);
+        assertTrue(offer(ring, RMC));
+        assertTrue(offer(ring, GGA));
+        assertEquals(2, ring.getQueued());
+
+        assertEquals(2, ring.drain(new BasicNMEAParser(handler, false, false), 16));
+
+        assertEquals(0, ring.getQueued());
+        InOrder inOrder = inOrder(handler);
+        inOrder.verify(handler).onStart();
+        inOrder.verify(handler).onRMC(anyLong(), anyLong(), anyDouble(), anyDouble(), anyFloat(), anyFloat());
+        inOrder.verify(handler).onGGA(anyLong(), anyDouble(), anyDouble(), anyFloat(), any(BasicNMEAHandler.FixQuality.class), anyInt(), anyFloat());
+        inOrder.verify(handler).onFinished();
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testOverflowDrop() throws Exception {
+        BasicNMEARingBuffer ring = new BasicNMEARingBuffer(2, 82,
+                BasicNMEARingBuffer.WaitStrategy.BUSY_SPIN, BasicNMEARingBuffer.OverflowPolicy.DROP);
+        assertTrue(offer(ring, RMC));
+        assertTrue(offer(ring, RMC));
+        assertFalse(offer(ring, GGA));
+        assertFalse(offer(ring, RMC + RMC));
+
+        assertEquals(4, ring.getOffered());
+        assertEquals(2, ring.getDropped());
+        assertEquals(2, ring.getQueued());
+        assertEquals(1, ring.drain(new BasicNMEAParser(handler), 1));
+        assertTrue(offer(ring, GGA));
+        assertEquals(2, ring.drain(new BasicNMEAParser(handler), 16));
+
+        verify(handler, times(2)).onRMC(anyLong(), anyLong(), anyDouble(), anyDouble(), anyFloat(), anyFloat());
+        verify(handler).onGGA(anyLong(), anyDouble(), anyDouble(), anyFloat(), any(BasicNMEAHandler.FixQuality.class), anyInt(), anyFloat());
+        verify(handler, times(2)).onStart();
+    }
+
+    @Test
+    public void testReaderOverflow() throws Exception {
+        BasicNMEARingBuffer ring = new BasicNMEARingBuffer(2, 82,
+                BasicNMEARingBuffer.WaitStrategy.BUSY_SPIN, BasicNMEARingBuffer.OverflowPolicy.DROP);
+        String data = RMC + "\r\n" + GGA + "\r\n" + RMC + "\r\n";
+        BasicNMEAReader reader = new BasicNMEAReader(ring);
+
+        assertEquals(2, reader.read(new ByteArrayInputStream(data.getBytes("US-ASCII"))));
+        assertEquals(2, reader.getSentences());
+        assertEquals(1, reader.getDropped());
+        assertEquals(1, ring.getDropped());
+    }
+
+    @Test
+    public void testConsume() throws Exception {
+        final BasicNMEARingBuffer ring = new BasicNMEARingBuffer(8, 82,
+                BasicNMEARingBuffer.WaitStrategy.PARK, BasicNMEARingBuffer.OverflowPolicy.BLOCK);
+        final StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            data.append(RMC).append("\r\n").append(GGA).append("\r\n");
+        }
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    new BasicNMEAReader(ring).read(new ByteArrayInputStream(data.toString().getBytes("US-ASCII")));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    ring.close();
+                }
+            }
+        });
+        producer.start();
+
+        CountingHandler counter = new CountingHandler();
+        assertEquals(10000, ring.consume(new BasicNMEAParser(counter, false, false)));
+        producer.join();
+
+        assertEquals(10000, ring.getOffered());
+        assertEquals(0, ring.getDropped());
+        assertEquals(5000, counter.rmc);
+        assertEquals(5000, counter.gga);
+        assertEquals(0, counter.errors);
+    }
+
+    private static class CountingHandler extends BasicNMEAAdapter {
+        int rmc;
+        int gga;
+        int errors;
+
+        @Override
+        public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+            rmc++;
+        }
+
+        @Override
+        public void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop) {
+            gga++;
+        }
+
+        @Override
+        public void onGSA(FixType type, Set<Integer> prns, float pdop, float hdop, float vdop) {
+            errors++;
+        }
+
+        @Override
+        public void onUnrecognized(String sentence) {
+            errors++;
+        }
+
+        @Override
+        public void onBadChecksum(int expected, int actual) {
+            errors++;
+        }
+
+        @Override
+        public void onException(Exception e) {
+            errors++;
+        }
+    }
+}
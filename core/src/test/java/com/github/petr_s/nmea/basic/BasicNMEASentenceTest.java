@@ -0,0 +1,154 @@
+package com.github.petr_s.nmea.basic;
+
+import org.junit.Test;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.Talker;
+import static com.github.petr_s.nmea.basic.BasicNMEASentence.*;
+import static org.junit.Assert.*;
+
+public class BasicNMEASentenceTest {
+    private static final double DELTA = 1e-5;
+
+    @Test
+    public void testRMC() throws Exception {
+        SentenceHandler handler = new SentenceHandler() {
+            @Override
+            void check(BasicNMEASentence sentence) {
+                assertEquals(Talker.GP, sentence.getTalker());
+                assertEquals(SentenceType.RMC, sentence.getType());
+                assertEquals(12, sentence.getFieldCount());
+                assertEquals(59647000L, sentence.getTime(RMC_TIME));
+                assertEquals('A', sentence.getChar(RMC_STATUS, "AV"));
+                assertEquals(50.07914, sentence.getLatitude(RMC_LATITUDE), DELTA);
+                assertEquals(14.39825, sentence.getLongitude(RMC_LONGITUDE), DELTA);
+                assertEquals(0.04f, sentence.getFloat(RMC_SPEED), DELTA);
+                assertEquals(36.97f, sentence.getFloat(RMC_COURSE), DELTA);
+                assertEquals(1460937600000L, sentence.getDate(RMC_DATE));
+                assertEquals(3.1f, sentence.getFloat(RMC_MAGNETIC_VARIATION), DELTA);
+                assertEquals('W', sentence.getChar(RMC_MAGNETIC_VARIATION + 1, "EW"));
+                assertEquals('A', sentence.getChar(RMC_FAA_MODE, "ADEMSN"));
+            }
+        };
+        new BasicNMEAParser(handler).parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,3.1,W,A*2E");
+
+        assertEquals(1, handler.sentences);
+        assertNull(handler.exception);
+    }
+
+    @Test
+    public void testGGA() throws Exception {
+        SentenceHandler handler = new SentenceHandler() {
+            @Override
+            void check(BasicNMEASentence sentence) {
+                assertEquals(SentenceType.GGA, sentence.getType());
+                assertEquals(-50.07914, sentence.getLatitude(GGA_LATITUDE), DELTA);
+                assertEquals(-14.39825, sentence.getLongitude(GGA_LONGITUDE), DELTA);
+                assertEquals(2, sentence.getInt(GGA_QUALITY));
+                assertEquals(7, sentence.getInt(GGA_SATELLITES));
+                assertEquals(1.5f, sentence.getFloat(GGA_DGPS_AGE), DELTA);
+                assertEquals(123, sentence.getInt(GGA_DGPS_STATION));
+                assertEquals("0123", sentence.getString(GGA_DGPS_STATION));
+            }
+        };
+        new BasicNMEAParser(handler).parse("$GPGGA,163407.000,5004.7485,S,01423.8956,W,2,07,1.7,285.7,M,45.5,M,1.5,0123*79");
+
+        assertEquals(1, handler.sentences);
+        assertNull(handler.exception);
+    }
+
+    @Test
+    public void testMissingFields() throws Exception {
+        SentenceHandler handler = new SentenceHandler() {
+            @Override
+            void check(BasicNMEASentence sentence) {
+                assertEquals(11, sentence.getFieldCount());
+                assertTrue(sentence.isEmpty(RMC_MAGNETIC_VARIATION));
+                assertTrue(sentence.isEmpty(RMC_FAA_MODE));
+                assertEquals(0.0f, sentence.getFloat(RMC_MAGNETIC_VARIATION, 0.0f), DELTA);
+                assertEquals('N', sentence.getChar(RMC_FAA_MODE, "ADEMSN", 'N'));
+                assertEquals(-1, sentence.getInt(100, -1));
+            }
+        };
+        new BasicNMEAParser(handler).parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+
+        assertEquals(1, handler.sentences);
+        assertNull(handler.exception);
+    }
+
+    @Test
+    public void testUnsupported() throws Exception {
+        SentenceHandler handler = new SentenceHandler() {
+            @Override
+            void check(BasicNMEASentence sentence) {
+                assertNull(sentence.getType());
+                assertTrue(sentence.isType("GPZDA"));
+                assertFalse(sentence.isType("GPRMC"));
+                assertEquals(18, sentence.getInt(1));
+                assertEquals(2016, sentence.getInt(3));
+                assertEquals("$GPZDA,163407.00,18,04,2016,00,00*69", sentence.toString());
+            }
+        };
+        new BasicNMEAParser(handler).parse("$GPZDA,163407.00,18,04,2016,00,00*69");
+
+        assertEquals(1, handler.sentences);
+        assertNull(handler.exception);
+    }
+
+    @Test
+    public void testInvalidField() throws Exception {
+        SentenceHandler handler = new SentenceHandler() {
+            @Override
+            void check(BasicNMEASentence sentence) {
+                sentence.getInt(RMC_STATUS);
+            }
+        };
+        new BasicNMEAParser(handler).parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+
+        assertEquals(1, handler.sentences);
+        assertTrue(handler.exception instanceof NumberFormatException);
+    }
+
+    @Test
+    public void testBadChecksum() throws Exception {
+        SentenceHandler handler = new SentenceHandler() {
+            @Override
+            void check(BasicNMEASentence sentence) {
+                fail();
+            }
+        };
+        new BasicNMEAParser(handler).parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*42");
+
+        assertEquals(0, handler.sentences);
+        assertEquals(1, handler.badChecksums);
+    }
+
+    private static abstract class SentenceHandler extends BasicNMEAAdapter implements BasicNMEASentenceHandler {
+        int sentences;
+        int badChecksums;
+        Exception exception;
+
+        abstract void check(BasicNMEASentence sentence);
+
+        @Override
+        public void onSentence(BasicNMEASentence sentence) {
+            sentences++;
+            check(sentence);
+        }
+
+        @Override
+        public void onBadChecksum(int expected, int actual) {
+            badChecksums++;
+        }
+
+        @Override
+        public void onException(Exception e) {
+            exception = e;
+        }
+
+        @Override
+        public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+            fail();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.petr_s.nmea.basic;
+
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BasicNMEAStatsTest {
+
+    @Test
+    public void testBucket() throws Exception {
+        for (long nanos = 0; nanos < 100000; nanos++) {
+            int bucket = BasicNMEAStats.bucket(nanos);
+            assertTrue(nanos <= BasicNMEAStats.highest(bucket));
+            assertTrue(bucket == 0 || nanos > BasicNMEAStats.highest(bucket - 1));
+        }
+        assertTrue(BasicNMEAStats.bucket(Long.MAX_VALUE) < (64 - 3) * 8);
+        assertEquals(Long.MAX_VALUE, BasicNMEAStats.highest(BasicNMEAStats.bucket(Long.MAX_VALUE)));
+        assertEquals(0, BasicNMEAStats.bucket(-1));
+    }
+
+    @Test
+    public void testPercentiles() throws Exception {
+        BasicNMEAStats stats = new BasicNMEAStats();
+        for (int i = 1; i <= 1000; i++) {
+            stats.recordLatency(i * 1000L);
+        }
+
+        BasicNMEAStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(1000, snapshot.getLatencyCount());
+        assertInRange(500000, snapshot.getLatencyP50Nanos());
+        assertInRange(990000, snapshot.getLatencyP99Nanos());
+        assertInRange(999000, snapshot.getLatencyP999Nanos());
+        assertInRange(1000000, snapshot.getMaxLatencyNanos());
+        assertEquals(snapshot.getLatencyP50Nanos(), stats.getLatencyP50Nanos());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        BasicNMEAStats.Snapshot snapshot = new BasicNMEAStats().snapshot();
+
+        assertEquals(0, snapshot.getTotal());
+        assertEquals(0, snapshot.getLatencyCount());
+        assertEquals(0, snapshot.getLatencyP99Nanos());
+        assertEquals(0, snapshot.getMaxLatencyNanos());
+        assertEquals(0, snapshot.getEpochs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantile() throws Exception {
+        new BasicNMEAStats().snapshot().getLatencyNanos(1.5);
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        BasicNMEAStats stats = new BasicNMEAStats();
+        stats.recordSentence(SentenceType.GSV);
+        stats.recordSkipped();
+        stats.recordLatency(100);
+        BasicNMEAStats.Snapshot snapshot = stats.snapshot();
+        stats.reset();
+
+        assertEquals(1, snapshot.getSentences(SentenceType.GSV));
+        assertEquals(2, snapshot.getTotal());
+        assertEquals(0, stats.snapshot().getTotal());
+        assertEquals(0, stats.snapshot().getLatencyCount());
+    }
+
+    @Test
+    public void testEpoch() throws Exception {
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch();
+        BasicNMEAStats stats = new BasicNMEAStats(epoch);
+        epoch.open(1000);
+        epoch.add(1000, BasicNMEAEpoch.RMC);
+        epoch.open(2000);
+        epoch.add(2000, BasicNMEAEpoch.RMC);
+        epoch.open(2000);
+        epoch.add(2000, BasicNMEAEpoch.GGA);
+
+        BasicNMEAStats.Snapshot snapshot = stats.snapshot();
+        assertEquals(1, snapshot.getEpochs());
+        assertEquals(1, snapshot.getCompletedEpochs());
+        assertEquals(1, snapshot.getDroppedEpochs());
+        assertEquals(1, stats.getDroppedEpochs());
+    }
+
+    @Test
+    public void testJmx() throws Exception {
+        BasicNMEAStats stats = new BasicNMEAStats();
+        stats.recordSentence(SentenceType.RMC);
+        ObjectName name = BasicNMEAStatsJmx.register(stats, "test");
+
+        try {
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "RMC"));
+        } finally {
+            BasicNMEAStatsJmx.unregister(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    private static void assertInRange(long expected, long actual) {
+        assertTrue(actual + " < " + expected, actual >= expected);
+        assertTrue(actual + " > " + expected, actual <= expected + expected / 8);
+    }
+}
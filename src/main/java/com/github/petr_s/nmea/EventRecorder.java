@@ -0,0 +1,227 @@
+package com.github.petr_s.nmea;
+
+import com.github.petr_s.nmea.basic.BasicNMEAErrorHandler;
+import com.github.petr_s.nmea.basic.BasicNMEAHandler;
+import com.github.petr_s.nmea.basic.BasicNMEATalkerHandler;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Records parser callbacks into compact arrays so they can be replayed later,
+ * in order, into another {@link BasicNMEAHandler}.
+ */
+class EventRecorder implements BasicNMEAErrorHandler, BasicNMEATalkerHandler {
+    private static final byte START = 0;
+    private static final byte RMC = 1;
+    private static final byte GGA = 2;
+    private static final byte GSV = 3;
+    private static final byte GSA = 4;
+    private static final byte UNRECOGNIZED = 5;
+    private static final byte BAD_CHECKSUM = 6;
+    private static final byte EXCEPTION = 7;
+    private static final byte FINISHED = 8;
+    private static final byte ERROR = 9;
+    private static final byte TALKER = 10;
+
+    private byte[] types = new byte[256];
+    private long[] longs = new long[256];
+    private double[] doubles = new double[256];
+    private float[] floats = new float[256];
+    private int[] ints = new int[256];
+    private Object[] objects = new Object[16];
+    private int typeCount;
+    private int longCount;
+    private int doubleCount;
+    private int floatCount;
+    private int intCount;
+    private int objectCount;
+
+    /**
+     * Replays all recorded callbacks in their original order.
+     *
+     * @param handler target of the callbacks
+     */
+    void replay(BasicNMEAHandler handler) {
+        int l = 0, d = 0, f = 0, i = 0, o = 0;
+        for (int t = 0; t < typeCount; t++) {
+            switch (types[t]) {
+                case START:
+                    handler.onStart();
+                    break;
+                case RMC:
+                    handler.onRMC(longs[l++], longs[l++], doubles[d++], doubles[d++], floats[f++], floats[f++]);
+                    break;
+                case GGA:
+                    handler.onGGA(longs[l++], doubles[d++], doubles[d++], floats[f++],
+                            (FixQuality) objects[o++], ints[i++], floats[f++]);
+                    break;
+                case GSV:
+                    handler.onGSV(ints[i++], ints[i++], ints[i++], floats[f++], floats[f++], ints[i++]);
+                    break;
+                case GSA:
+                    @SuppressWarnings("unchecked")
+                    Set<Integer> prns = (Set<Integer>) objects[o + 1];
+                    handler.onGSA((FixType) objects[o], prns, floats[f++], floats[f++], floats[f++]);
+                    o += 2;
+                    break;
+                case UNRECOGNIZED:
+                    handler.onUnrecognized((String) objects[o++]);
+                    break;
+                case BAD_CHECKSUM:
+                    handler.onBadChecksum(ints[i++], ints[i++]);
+                    break;
+                case EXCEPTION:
+                    handler.onException((Exception) objects[o++]);
+                    break;
+                case FINISHED:
+                    handler.onFinished();
+                    break;
+                case ERROR:
+                    SentenceType type = (SentenceType) objects[o++];
+                    FieldError error = (FieldError) objects[o++];
+                    if (handler instanceof BasicNMEAErrorHandler) {
+                        ((BasicNMEAErrorHandler) handler).onError(type, ints[i++], error);
+                    } else {
+                        handler.onException(error.toException(type, ints[i++]));
+                    }
+                    break;
+                case TALKER:
+                    Talker talker = (Talker) objects[o++];
+                    if (handler instanceof BasicNMEATalkerHandler) {
+                        ((BasicNMEATalkerHandler) handler).onTalker(talker);
+                    }
+                    break;
+            }
+        }
+    }
+
+    private void type(byte type) {
+        if (typeCount == types.length) {
+            types = Arrays.copyOf(types, typeCount * 2);
+        }
+        types[typeCount++] = type;
+    }
+
+    private void add(long value) {
+        if (longCount == longs.length) {
+            longs = Arrays.copyOf(longs, longCount * 2);
+        }
+        longs[longCount++] = value;
+    }
+
+    private void add(double value) {
+        if (doubleCount == doubles.length) {
+            doubles = Arrays.copyOf(doubles, doubleCount * 2);
+        }
+        doubles[doubleCount++] = value;
+    }
+
+    private void add(float value) {
+        if (floatCount == floats.length) {
+            floats = Arrays.copyOf(floats, floatCount * 2);
+        }
+        floats[floatCount++] = value;
+    }
+
+    private void add(int value) {
+        if (intCount == ints.length) {
+            ints = Arrays.copyOf(ints, intCount * 2);
+        }
+        ints[intCount++] = value;
+    }
+
+    private void add(Object value) {
+        if (objectCount == objects.length) {
+            objects = Arrays.copyOf(objects, objectCount * 2);
+        }
+        objects[objectCount++] = value;
+    }
+
+    @Override
+    public void onStart() {
+        type(START);
+    }
+
+    @Override
+    public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+        type(RMC);
+        add(date);
+        add(time);
+        add(latitude);
+        add(longitude);
+        add(speed);
+        add(direction);
+    }
+
+    @Override
+    public void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop) {
+        type(GGA);
+        add(time);
+        add(latitude);
+        add(longitude);
+        add(altitude);
+        add((Object) quality);
+        add(satellites);
+        add(hdop);
+    }
+
+    @Override
+    public void onGSV(int satellites, int index, int prn, float elevation, float azimuth, int snr) {
+        type(GSV);
+        add(satellites);
+        add(index);
+        add(prn);
+        add(elevation);
+        add(azimuth);
+        add(snr);
+    }
+
+    @Override
+    public void onGSA(FixType type, Set<Integer> prns, float pdop, float hdop, float vdop) {
+        type(GSA);
+        add((Object) type);
+        add((Object) prns);
+        add(pdop);
+        add(hdop);
+        add(vdop);
+    }
+
+    @Override
+    public void onUnrecognized(String sentence) {
+        type(UNRECOGNIZED);
+        add((Object) sentence);
+    }
+
+    @Override
+    public void onBadChecksum(int expected, int actual) {
+        type(BAD_CHECKSUM);
+        add(expected);
+        add(actual);
+    }
+
+    @Override
+    public void onException(Exception e) {
+        type(EXCEPTION);
+        add((Object) e);
+    }
+
+    @Override
+    public void onError(SentenceType type, int field, FieldError error) {
+        type(ERROR);
+        add((Object) type);
+        add((Object) error);
+        add(field);
+    }
+
+    @Override
+    public void onTalker(Talker talker) {
+        type(TALKER);
+        add((Object) talker);
+    }
+
+    @Override
+    public void onFinished() {
+        type(FINISHED);
+    }
+}
@@ -4,4 +4,15 @@ import android.location.Location;
 
 public abstract class LocationFactory {
     public abstract Location newLocation();
+
+    /**
+     * Returns a location which is no longer used, so it can be handed out again by {@link #newLocation()}.
+     * The parser creates a location only to pass it to {@link NMEAHandler#onLocation(Location)} and never touches
+     * it afterwards, so handlers may recycle the locations once they are done with them.
+     * Does nothing by default.
+     *
+     * @param location location created by this factory, not to be used by the caller anymore
+     */
+    public void recycle(Location location) {
+    }
 }
@@ -0,0 +1,19 @@
+package com.github.petr_s.nmea;
+
+import com.github.petr_s.nmea.basic.BasicNMEAErrorHandler.FieldError;
+import com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+
+/**
+ * Extension of {@link NMEAHandler} receiving malformed sentences as error codes.
+ * When the handler implements it, {@link NMEAParser} calls {@link #onError(SentenceType, int, FieldError)}
+ * instead of {@link NMEAHandler#onException(Exception)} for a sentence with a malformed field,
+ * without constructing any exception.
+ */
+public interface NMEAErrorHandler extends NMEAHandler {
+    /**
+     * @param type  type of the sentence
+     * @param field index of the first malformed field, counted from 0 after the sentence type
+     * @param error what is wrong with the field
+     */
+    void onError(SentenceType type, int field, FieldError error);
+}
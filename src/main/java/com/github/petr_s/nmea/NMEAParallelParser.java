@@ -0,0 +1,160 @@
+package com.github.petr_s.nmea;
+
+import com.github.petr_s.nmea.basic.BasicNMEAParser;
+import com.github.petr_s.nmea.basic.BasicNMEAReplay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Parses large NMEA log files on several threads.
+ * The file is split into chunks at sentence boundaries ('$' following a line break), every chunk
+ * is decoded by its own {@link BasicNMEAParser} on the given executor (e.g. a ForkJoinPool) and the
+ * decoded sentences are then assembled by a single {@link NMEAParser} in their original order.
+ * The chunk parsers take over the subscription and the stats of the NMEAParser.
+ * Epochs and satellite cycles straddling chunk boundaries are therefore assembled exactly
+ * as if the file was parsed sequentially.
+ */
+public class NMEAParallelParser {
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int BOUNDARY_SCAN_SIZE = 4096;
+    private final NMEAParser parser;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+
+    public NMEAParallelParser(NMEAHandler handler, ExecutorService executor) {
+        this(new NMEAParser(handler), executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param parser    parser assembling locations and satellites from the decoded chunks
+     * @param executor  executor decoding the chunks
+     * @param chunkSize approximate size of a single chunk in bytes
+     */
+    public NMEAParallelParser(NMEAParser parser, ExecutorService executor, int chunkSize) {
+        if (parser == null || executor == null) {
+            throw new NullPointerException();
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size must be positive");
+        }
+
+        this.parser = parser;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * Parses the whole file, the handler is called on the calling thread.
+     *
+     * @param file NMEA log
+     * @throws IOException          if the file can't be read
+     * @throws InterruptedException if interrupted while waiting for a chunk
+     */
+    public synchronized void parse(File file) throws IOException, InterruptedException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            parse(raf.getChannel());
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void parse(FileChannel channel) throws IOException, InterruptedException {
+        Queue<Future<EventRecorder>> pending = new ArrayDeque<>();
+        long size = channel.size();
+        long start = 0;
+        try {
+            while (start < size) {
+                long end = boundary(channel, start + chunkSize, size);
+                EventRecorder recorder = new EventRecorder();
+                BasicNMEAParser chunkParser = new BasicNMEAParser(recorder, false, false);
+                parser.configure(chunkParser);
+                pending.add(executor.submit(new ChunkTask(channel, start, end - start, chunkParser, recorder)));
+                start = end;
+
+                if (pending.size() >= maxPendingChunks) {
+                    assemble(pending.remove());
+                }
+            }
+            while (!pending.isEmpty()) {
+                assemble(pending.remove());
+            }
+        } finally {
+            for (Future<EventRecorder> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private void assemble(Future<EventRecorder> chunk) throws IOException, InterruptedException {
+        try {
+            chunk.get().replay(parser);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Finds the first '$' following a line break at or after the given offset.
+     *
+     * @return offset of the sentence start, or the file size
+     */
+    private static long boundary(FileChannel channel, long offset, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        boolean lineBreak = false;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (lineBreak && b == '$') {
+                    return offset + i;
+                }
+                lineBreak = b == '\n' || (lineBreak && b == '\r');
+            }
+            offset += read;
+        }
+
+        return size;
+    }
+
+    private static class ChunkTask implements Callable<EventRecorder> {
+        private final FileChannel channel;
+        private final long position;
+        private final long size;
+        private final BasicNMEAParser parser;
+        private final EventRecorder recorder;
+
+        ChunkTask(FileChannel channel, long position, long size, BasicNMEAParser parser, EventRecorder recorder) {
+            this.channel = channel;
+            this.position = position;
+            this.size = size;
+            this.parser = parser;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public EventRecorder call() throws IOException {
+            new BasicNMEAReplay(parser).replay(channel, position, size);
+            return recorder;
+        }
+    }
+}
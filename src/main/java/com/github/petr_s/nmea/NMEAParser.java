@@ -1,27 +1,48 @@
 package com.github.petr_s.nmea;
 
 import android.location.Location;
-import com.github.petr_s.nmea.basic.BasicNMEAHandler;
+import com.github.petr_s.nmea.basic.BasicNMEAEpoch;
+import com.github.petr_s.nmea.basic.BasicNMEAErrorHandler;
+import com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+import com.github.petr_s.nmea.basic.BasicNMEAHandler.Talker;
+import com.github.petr_s.nmea.basic.BasicNMEAMaskHandler;
 import com.github.petr_s.nmea.basic.BasicNMEAParser;
+import com.github.petr_s.nmea.basic.BasicNMEAStats;
+import com.github.petr_s.nmea.basic.BasicNMEATalkerHandler;
+import com.github.petr_s.nmea.basic.PrnMask;
 
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.Set;
 
-public class NMEAParser implements BasicNMEAHandler {
+/**
+ * Assembles locations and satellites from NMEA sentences.
+ * Satellite cycles of every talker are assembled separately, so e.g. GPGSV and GLGSV cycles
+ * yield separate {@link NMEAHandler#onSatellites(List)} calls, see {@link BasicNMEATalkerHandler}.
+ */
+public class NMEAParser implements BasicNMEAMaskHandler, BasicNMEAErrorHandler, BasicNMEATalkerHandler {
     public static final String LOCATION_PROVIDER_NAME = "nmea-parser";
-    private static final int FLAG_RMC = 1;
-    private static final int FLAG_GGA = 2;
-    private static final int LOCATION_FLAGS = FLAG_RMC | FLAG_GGA;
     private static final int SATELLITES_COUNT = 24;
+    private static final int MAX_SATELLITES_COUNT = PrnMask.MAX_PRN + 1;
     private final NMEAHandler handler;
+    private final NMEAErrorHandler errorHandler;
     private final BasicNMEAParser basicParser;
     private final LocationFactory locationFactory;
+    private final boolean reuse;
+    private final Object lock;
+    private final BasicNMEAEpoch epoch;
+    private final Assembler assembler = new Assembler();
+    private final SatelliteCycle[] cycles = new SatelliteCycle[Talker.values().length];
+    private final PendingLocation pending = new PendingLocation();
     private Location location;
-    private long lastTime;
-    private int flags;
-    private int satellitesCount;
-    private GpsSatellite[] tempSatellites = new GpsSatellite[SATELLITES_COUNT];
-    private Set<Integer> activeSatellites;
+    private Talker talker = Talker.GP;
+    private Talker gsaTalker;
+    private boolean malformed;
+    private Set<SentenceType> subscribed;
 
     public NMEAParser(NMEAHandler handler) {
         this(handler, new LocationFactory() {
@@ -33,143 +54,689 @@ public class NMEAParser implements BasicNMEAHandler {
     }
 
     public NMEAParser(NMEAHandler handler, LocationFactory locationFactory) {
+        this(handler, locationFactory, false);
+    }
+
+    public NMEAParser(NMEAHandler handler, LocationFactory locationFactory, boolean reuse) {
+        this(handler, locationFactory, reuse, true);
+    }
+
+    /**
+     * @param handler         handler of locations and satellites
+     * @param locationFactory factory of the yielded locations
+     * @param reuse           if true, the satellite list passed to {@link NMEAHandler#onSatellites(List)}
+     *                        and the satellites in it are recycled by the next satellite cycle,
+     *                        so they are valid only during the callback and must be copied to be kept
+     * @param threadSafe      if true, parsing and the {@link BasicNMEAMaskHandler} callbacks may be called
+     *                        from several threads and are serialized on the parser, otherwise the parser
+     *                        takes no locks and must be confined to a single thread at a time
+     */
+    public NMEAParser(NMEAHandler handler, LocationFactory locationFactory, boolean reuse, boolean threadSafe) {
+        this(handler, locationFactory, reuse, threadSafe, new BasicNMEAEpoch());
+    }
+
+    /**
+     * @param handler         handler of locations and satellites
+     * @param locationFactory factory of the yielded locations
+     * @param reuse           see {@link #NMEAParser(NMEAHandler, LocationFactory, boolean, boolean)}
+     * @param threadSafe      see {@link #NMEAParser(NMEAHandler, LocationFactory, boolean, boolean)}
+     * @param epoch           emission policy and latency metrics of the locations, used by this parser only.
+     *                        Unless the policy is {@link BasicNMEAEpoch.Policy#COMPLETE}, locations of an epoch
+     *                        may be yielded before both RMC and GGA arrived, and again with every update of it.
+     *                        Every yield passes a new location, yielded locations are never touched by the parser again.
+     */
+    public NMEAParser(NMEAHandler handler, LocationFactory locationFactory, boolean reuse, boolean threadSafe,
+                      BasicNMEAEpoch epoch) {
         this.handler = handler;
+        this.errorHandler = handler instanceof NMEAErrorHandler ? (NMEAErrorHandler) handler : null;
         this.locationFactory = locationFactory;
-        basicParser = new BasicNMEAParser(this);
+        this.reuse = reuse;
+        this.lock = threadSafe ? this : null;
+        basicParser = new BasicNMEAParser(assembler, reuse, false);
+        this.epoch = epoch;
 
-        if (handler == null) {
+        if (handler == null || epoch == null) {
             throw new NullPointerException();
         }
     }
 
-    public synchronized void parse(String sentence) {
-        basicParser.parse(sentence);
+    /**
+     * Skips decoding of sentences not needed for the requested callbacks,
+     * e.g. GSV and GSA sentences when satellites aren't needed.
+     *
+     * @param locations  if true, {@link NMEAHandler#onLocation(Location)} is called
+     * @param satellites if true, {@link NMEAHandler#onSatellites(List)} is called
+     */
+    public void subscribe(boolean locations, boolean satellites) {
+        EnumSet<SentenceType> types = EnumSet.noneOf(SentenceType.class);
+        if (locations) {
+            types.add(SentenceType.RMC);
+            types.add(SentenceType.GGA);
+        }
+        if (satellites) {
+            types.add(SentenceType.GSV);
+            types.add(SentenceType.GSA);
+        }
+        if (lock == null) {
+            subscribe(types);
+        } else {
+            synchronized (lock) {
+                subscribe(types);
+            }
+        }
     }
 
-    private void resetLocationState() {
-        flags = 0;
-        lastTime = 0;
+    private void subscribe(Set<SentenceType> types) {
+        basicParser.subscribe(types, EnumSet.allOf(Talker.class), false);
+        subscribed = types;
     }
 
-    private void newLocation(long time) {
-        if (location == null || time != lastTime) {
-            location = locationFactory.newLocation();
-            resetLocationState();
+    /**
+     * Applies the subscription and the stats of this parser to a parser decoding sentences on its behalf,
+     * e.g. a chunk parser of {@link NMEAParallelParser}.
+     */
+    void configure(BasicNMEAParser parser) {
+        if (lock == null) {
+            configureParser(parser);
+        } else {
+            synchronized (lock) {
+                configureParser(parser);
+            }
         }
     }
 
-    private void yieldLocation(long time, int flag) {
-        if ((flags | flag & LOCATION_FLAGS) == LOCATION_FLAGS) {
-            handler.onLocation(location);
-            resetLocationState();
+    private void configureParser(BasicNMEAParser parser) {
+        if (subscribed == null) {
+            parser.subscribeAll();
         } else {
-            flags |= flag;
-            lastTime = time;
+            parser.subscribe(subscribed, EnumSet.allOf(Talker.class), false);
         }
+        parser.setStats(basicParser.getStats());
     }
 
-    private boolean hasAllSatellites() {
-        for (int i = 0; i < satellitesCount; i++) {
-            if (tempSatellites[i] == null) {
-                return false;
+    public void parse(String sentence) {
+        if (lock == null) {
+            basicParser.parse(sentence);
+        } else {
+            synchronized (lock) {
+                basicParser.parse(sentence);
             }
         }
+    }
 
-        return true;
+    public void parse(byte[] buffer, int offset, int length) {
+        if (lock == null) {
+            basicParser.parse(buffer, offset, length);
+        } else {
+            synchronized (lock) {
+                basicParser.parse(buffer, offset, length);
+            }
+        }
     }
 
-    private void yieldSatellites() {
-        if (satellitesCount > 0 && hasAllSatellites() && activeSatellites != null) {
-            for (GpsSatellite satellite : tempSatellites) {
-                if (satellite == null) {
-                    break;
-                } else {
-                    satellite.setUsedInFix(activeSatellites.contains(satellite.getPrn()));
-                    satellite.setHasAlmanac(true); // TODO: ...
-                    satellite.setHasEphemeris(true);  // TODO: ...
-                }
+    public void parse(ByteBuffer buffer) {
+        if (lock == null) {
+            basicParser.parse(buffer);
+        } else {
+            synchronized (lock) {
+                basicParser.parse(buffer);
             }
+        }
+    }
 
-            handler.onSatellites(Arrays.asList(Arrays.copyOf(tempSatellites, satellitesCount)));
+    /**
+     * Parses line separated sentences, see {@link BasicNMEAParser#parseBatch(byte[], int, int)}.
+     * The handler gets a single {@link NMEAHandler#onStart()} and {@link NMEAHandler#onFinish()} for the whole batch.
+     */
+    public int parseBatch(byte[] buffer, int offset, int length) {
+        if (lock == null) {
+            return basicParser.parseBatch(buffer, offset, length);
+        }
+        synchronized (lock) {
+            return basicParser.parseBatch(buffer, offset, length);
+        }
+    }
 
-            Arrays.fill(tempSatellites, null);
-            activeSatellites = null;
-            satellitesCount = 0;
+    /**
+     * Parses sentences, see {@link BasicNMEAParser#parseBatch(Iterable)}.
+     * The handler gets a single {@link NMEAHandler#onStart()} and {@link NMEAHandler#onFinish()} for the whole batch.
+     */
+    public int parseBatch(Iterable<String> sentences) {
+        if (lock == null) {
+            return basicParser.parseBatch(sentences);
+        }
+        synchronized (lock) {
+            return basicParser.parseBatch(sentences);
         }
     }
 
-    private void newSatellite(int index, int count, int prn, float elevation, float azimuth, int snr) {
-        if (count != satellitesCount) {
-            satellitesCount = count;
+    /**
+     * Yields the pending partial location if the timeout of {@link BasicNMEAEpoch.Policy#TIMEOUT} expired,
+     * for callers that can't rely on a steady flow of sentences.
+     */
+    public void poll() {
+        if (lock == null) {
+            assembler.poll();
+        } else {
+            synchronized (lock) {
+                assembler.poll();
+            }
         }
+    }
 
-        GpsSatellite satellite = new GpsSatellite(prn);
-        satellite.setAzimuth(azimuth);
-        satellite.setElevation(elevation);
-        satellite.setSnr(snr);
+    /**
+     * Enables statistics of the parsed sentences, see {@link BasicNMEAParser#setStats(BasicNMEAStats)}.
+     * The epoch of this parser is bound to the stats, so their snapshots include its assembly counts.
+     *
+     * @param stats stats to record into, or null to disable them
+     */
+    public void setStats(BasicNMEAStats stats) {
+        if (stats != null) {
+            stats.setEpoch(epoch);
+        }
+        if (lock == null) {
+            basicParser.setStats(stats);
+        } else {
+            synchronized (lock) {
+                basicParser.setStats(stats);
+            }
+        }
+    }
 
-        tempSatellites[index] = satellite;
+    public BasicNMEAStats getStats() {
+        if (lock == null) {
+            return basicParser.getStats();
+        }
+        synchronized (lock) {
+            return basicParser.getStats();
+        }
     }
 
-    @Override
-    public synchronized void onStart() {
-        handler.onStart();
+    private void newLocation(long time) {
+        switch (epoch.open(time)) {
+            case BasicNMEAEpoch.EMIT:
+                emitLocation();
+                location = locationFactory.newLocation();
+                pending.clear();
+                break;
+            case BasicNMEAEpoch.DISCARD:
+                locationFactory.recycle(location);
+                location = locationFactory.newLocation();
+                pending.clear();
+                break;
+            case BasicNMEAEpoch.START:
+                location = locationFactory.newLocation();
+                pending.clear();
+                break;
+            case BasicNMEAEpoch.COPY:
+                location = locationFactory.newLocation();
+                break;
+            default:
+                break;
+        }
     }
 
-    @Override
-    public synchronized void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
-        newLocation(time);
+    private void yieldLocation(long time, int flag) {
+        if (epoch.add(time, flag)) {
+            emitLocation();
+        }
+    }
+
+    /**
+     * Passes the location of the epoch, filled from the pending fix, to the handler and lets go of it.
+     * The pending fix stays owned by the parser, later sentences of the epoch are applied to a new location.
+     */
+    private void emitLocation() {
+        Location emitted = location;
+        location = null;
+        pending.apply(emitted);
+        handler.onLocation(emitted);
+    }
 
-        location.setTime(date | time);
-        location.setSpeed(speed);
-        location.setBearing(direction);
+    private SatelliteCycle cycle(Talker talker) {
+        SatelliteCycle cycle = cycles[talker.ordinal()];
+        if (cycle == null) {
+            cycle = new SatelliteCycle();
+            cycles[talker.ordinal()] = cycle;
+        }
+        return cycle;
+    }
 
-        yieldLocation(time, FLAG_RMC);
+    /**
+     * Starts a new set of active satellites, unless the GSA continues a run of GSA sentences of the same talker,
+     * e.g. GNGSA sentences of several constellations.
+     */
+    private long[] activeSatellites() {
+        SatelliteCycle cycle = cycle(talker);
+        if (gsaTalker != talker) {
+            Arrays.fill(cycle.activeSatellites, 0L);
+        }
+        cycle.hasActiveSatellites = true;
+        gsaTalker = talker;
+        return cycle.activeSatellites;
     }
 
-    @Override
-    public synchronized void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop) {
-        newLocation(time);
+    private void yieldActiveSatellites() {
+        if (talker != Talker.GN) {
+            cycle(talker).yieldSatellites();
+            return;
+        }
+        for (SatelliteCycle cycle : cycles) {
+            if (cycle != null) {
+                cycle.yieldSatellites();
+            }
+        }
+    }
 
-        location.setLatitude(latitude);
-        location.setLongitude(longitude);
-        location.setAltitude(altitude);
-        location.setAccuracy(hdop * 4.0f);
+    @Override
+    public void onStart() {
+        if (lock == null) {
+            assembler.onStart();
+        } else {
+            synchronized (lock) {
+                assembler.onStart();
+            }
+        }
+    }
 
-        yieldLocation(time, FLAG_GGA);
+    @Override
+    public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+        if (lock == null) {
+            assembler.onRMC(date, time, latitude, longitude, speed, direction);
+        } else {
+            synchronized (lock) {
+                assembler.onRMC(date, time, latitude, longitude, speed, direction);
+            }
+        }
     }
 
     @Override
-    public synchronized void onGSV(int satellites, int index, int prn, float elevation, float azimuth, int snr) {
-        newSatellite(index, satellites, prn, elevation, azimuth, snr);
+    public void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop) {
+        if (lock == null) {
+            assembler.onGGA(time, latitude, longitude, altitude, quality, satellites, hdop);
+        } else {
+            synchronized (lock) {
+                assembler.onGGA(time, latitude, longitude, altitude, quality, satellites, hdop);
+            }
+        }
+    }
 
-        yieldSatellites();
+    @Override
+    public void onGSV(int satellites, int index, int prn, float elevation, float azimuth, int snr) {
+        if (lock == null) {
+            assembler.onGSV(satellites, index, prn, elevation, azimuth, snr);
+        } else {
+            synchronized (lock) {
+                assembler.onGSV(satellites, index, prn, elevation, azimuth, snr);
+            }
+        }
     }
 
     @Override
     public void onGSA(FixType type, Set<Integer> prns, float pdop, float hdop, float vdop) {
-        activeSatellites = prns;
+        if (lock == null) {
+            assembler.onGSA(type, prns, pdop, hdop, vdop);
+        } else {
+            synchronized (lock) {
+                assembler.onGSA(type, prns, pdop, hdop, vdop);
+            }
+        }
+    }
 
-        yieldSatellites();
+    @Override
+    public void onGSA(FixType type, long[] prns, float pdop, float hdop, float vdop) {
+        if (lock == null) {
+            assembler.onGSA(type, prns, pdop, hdop, vdop);
+        } else {
+            synchronized (lock) {
+                assembler.onGSA(type, prns, pdop, hdop, vdop);
+            }
+        }
     }
 
     @Override
-    public synchronized void onUnrecognized(String sentence) {
-        handler.onUnrecognized(sentence);
+    public void onUnrecognized(String sentence) {
+        if (lock == null) {
+            assembler.onUnrecognized(sentence);
+        } else {
+            synchronized (lock) {
+                assembler.onUnrecognized(sentence);
+            }
+        }
     }
 
     @Override
-    public synchronized void onBadChecksum(int expected, int actual) {
-        handler.onBadChecksum(expected, actual);
+    public void onBadChecksum(int expected, int actual) {
+        if (lock == null) {
+            assembler.onBadChecksum(expected, actual);
+        } else {
+            synchronized (lock) {
+                assembler.onBadChecksum(expected, actual);
+            }
+        }
+    }
+
+    @Override
+    public void onException(Exception e) {
+        if (lock == null) {
+            assembler.onException(e);
+        } else {
+            synchronized (lock) {
+                assembler.onException(e);
+            }
+        }
     }
 
     @Override
-    public synchronized void onException(Exception e) {
-        handler.onException(e);
+    public void onError(SentenceType type, int field, FieldError error) {
+        if (lock == null) {
+            assembler.onError(type, field, error);
+        } else {
+            synchronized (lock) {
+                assembler.onError(type, field, error);
+            }
+        }
     }
 
     @Override
-    public synchronized void onFinished() {
-        handler.onFinish();
+    public void onTalker(Talker talker) {
+        if (lock == null) {
+            assembler.onTalker(talker);
+        } else {
+            synchronized (lock) {
+                assembler.onTalker(talker);
+            }
+        }
+    }
+
+    @Override
+    public void onFinished() {
+        if (lock == null) {
+            assembler.onFinished();
+        } else {
+            synchronized (lock) {
+                assembler.onFinished();
+            }
+        }
+    }
+
+    /**
+     * Assembles locations and satellites from the decoded sentences, called without any locking.
+     */
+    private class Assembler implements BasicNMEAMaskHandler, BasicNMEAErrorHandler, BasicNMEATalkerHandler {
+        void poll() {
+            if (epoch.expired()) {
+                handler.onStart();
+                emitLocation();
+                handler.onFinish();
+            }
+        }
+
+        @Override
+        public void onStart() {
+            handler.onStart();
+        }
+
+        @Override
+        public void onRMC(long date, long time, double latitude, double longitude, float speed, float direction) {
+            gsaTalker = null;
+            newLocation(time);
+
+            if (epoch.isEager() && !epoch.has(BasicNMEAEpoch.GGA)) {
+                pending.setPosition(latitude, longitude);
+            }
+            pending.setRMC(date + time, speed, direction);
+
+            yieldLocation(time, BasicNMEAEpoch.RMC);
+        }
+
+        @Override
+        public void onGGA(long time, double latitude, double longitude, float altitude, FixQuality quality, int satellites, float hdop) {
+            gsaTalker = null;
+            newLocation(time);
+
+            pending.setPosition(latitude, longitude);
+            pending.setGGA(altitude, hdop * 4.0f);
+
+            yieldLocation(time, BasicNMEAEpoch.GGA);
+        }
+
+        @Override
+        public void onGSV(int satellites, int index, int prn, float elevation, float azimuth, int snr) {
+            gsaTalker = null;
+            if (satellites > MAX_SATELLITES_COUNT) {
+                if (!malformed) {
+                    malformed = true;
+                    onError(SentenceType.GSV, 2, FieldError.OUT_OF_RANGE);
+                }
+                return;
+            }
+            SatelliteCycle cycle = cycle(talker);
+            cycle.newSatellite(index, satellites, prn, elevation, azimuth, snr);
+
+            cycle.yieldSatellites();
+        }
+
+        @Override
+        public void onGSA(FixType type, Set<Integer> prns, float pdop, float hdop, float vdop) {
+            long[] activeSatellites = activeSatellites();
+            for (int prn : prns) {
+                if (prn >= 0 && prn <= PrnMask.MAX_PRN) {
+                    activeSatellites[prn >>> 6] |= 1L << prn;
+                }
+            }
+
+            yieldActiveSatellites();
+        }
+
+        @Override
+        public void onGSA(FixType type, long[] prns, float pdop, float hdop, float vdop) {
+            long[] activeSatellites = activeSatellites();
+            for (int i = 0; i < Math.min(prns.length, activeSatellites.length); i++) {
+                activeSatellites[i] |= prns[i];
+            }
+
+            yieldActiveSatellites();
+        }
+
+        @Override
+        public void onTalker(Talker talker) {
+            NMEAParser.this.talker = talker;
+            malformed = false;
+        }
+
+        @Override
+        public void onUnrecognized(String sentence) {
+            handler.onUnrecognized(sentence);
+        }
+
+        @Override
+        public void onBadChecksum(int expected, int actual) {
+            handler.onBadChecksum(expected, actual);
+        }
+
+        @Override
+        public void onException(Exception e) {
+            handler.onException(e);
+        }
+
+        @Override
+        public void onError(SentenceType type, int field, FieldError error) {
+            if (errorHandler != null) {
+                errorHandler.onError(type, field, error);
+            } else {
+                handler.onException(error.toException(type, field));
+            }
+        }
+
+        @Override
+        public void onFinished() {
+            if (epoch.expired()) {
+                emitLocation();
+            }
+            handler.onFinish();
+        }
+    }
+
+    /**
+     * Fix of the current epoch, applied to a new location on every emission.
+     */
+    private static class PendingLocation {
+        private boolean hasPosition;
+        private boolean hasRMC;
+        private boolean hasGGA;
+        private double latitude;
+        private double longitude;
+        private long time;
+        private float speed;
+        private float bearing;
+        private double altitude;
+        private float accuracy;
+
+        void clear() {
+            hasPosition = false;
+            hasRMC = false;
+            hasGGA = false;
+        }
+
+        void setPosition(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            hasPosition = true;
+        }
+
+        void setRMC(long time, float speed, float bearing) {
+            this.time = time;
+            this.speed = speed;
+            this.bearing = bearing;
+            hasRMC = true;
+        }
+
+        void setGGA(double altitude, float accuracy) {
+            this.altitude = altitude;
+            this.accuracy = accuracy;
+            hasGGA = true;
+        }
+
+        void apply(Location location) {
+            if (hasPosition) {
+                location.setLatitude(latitude);
+                location.setLongitude(longitude);
+            }
+            if (hasRMC) {
+                location.setTime(time);
+                location.setSpeed(speed);
+                location.setBearing(bearing);
+            }
+            if (hasGGA) {
+                location.setAltitude(altitude);
+                location.setAccuracy(accuracy);
+            }
+        }
+    }
+
+    /**
+     * GSV and GSA state of a single talker. A cycle without its own GSA uses the active satellites
+     * of GNGSA sentences, which are kept until the next GNGSA.
+     */
+    private class SatelliteCycle {
+        private final SatelliteList satelliteList = reuse ? new SatelliteList() : null;
+        private final long[] activeSatellites = new long[PrnMask.WORDS];
+        private GpsSatellite[] tempSatellites = new GpsSatellite[SATELLITES_COUNT];
+        private boolean[] receivedSatellites = new boolean[SATELLITES_COUNT];
+        private int satellitesCount;
+        private boolean hasActiveSatellites;
+
+        private boolean hasAllSatellites() {
+            for (int i = 0; i < satellitesCount; i++) {
+                if (!receivedSatellites[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private long[] activeSatellites() {
+            if (hasActiveSatellites) {
+                return activeSatellites;
+            }
+            SatelliteCycle combined = cycles[Talker.GN.ordinal()];
+            return combined != null && combined.hasActiveSatellites ? combined.activeSatellites : null;
+        }
+
+        void yieldSatellites() {
+            long[] active = activeSatellites();
+            if (satellitesCount > 0 && hasAllSatellites() && active != null) {
+                for (int i = 0; i < satellitesCount; i++) {
+                    GpsSatellite satellite = tempSatellites[i];
+                    satellite.setUsedInFix(PrnMask.contains(active, satellite.getPrn()));
+                    satellite.setHasAlmanac(true); // TODO: ...
+                    satellite.setHasEphemeris(true);  // TODO: ...
+                }
+
+                if (reuse) {
+                    handler.onSatellites(satelliteList.wrap(tempSatellites, satellitesCount));
+                } else {
+                    handler.onSatellites(Arrays.asList(Arrays.copyOf(tempSatellites, satellitesCount)));
+                }
+
+                Arrays.fill(receivedSatellites, false);
+                hasActiveSatellites = false;
+                satellitesCount = 0;
+            }
+        }
+
+        void newSatellite(int index, int count, int prn, float elevation, float azimuth, int snr) {
+            if (count != satellitesCount) {
+                satellitesCount = count;
+            }
+
+            if (count > tempSatellites.length) {
+                int capacity = Math.max(count, tempSatellites.length * 2);
+                tempSatellites = Arrays.copyOf(tempSatellites, capacity);
+                receivedSatellites = Arrays.copyOf(receivedSatellites, capacity);
+            }
+
+            GpsSatellite satellite = tempSatellites[index];
+            if (satellite == null || !reuse) {
+                satellite = new GpsSatellite(prn);
+                tempSatellites[index] = satellite;
+            } else {
+                satellite.mPrn = prn;
+            }
+            satellite.setAzimuth(azimuth);
+            satellite.setElevation(elevation);
+            satellite.setSnr(snr);
+
+            receivedSatellites[index] = true;
+        }
+    }
+
+    /**
+     * Read-only list view over the recycled satellites.
+     */
+    private static class SatelliteList extends AbstractList<GpsSatellite> implements RandomAccess {
+        private GpsSatellite[] satellites;
+        private int size;
+
+        List<GpsSatellite> wrap(GpsSatellite[] satellites, int size) {
+            this.satellites = satellites;
+            this.size = size;
+            return this;
+        }
+
+        @Override
+        public GpsSatellite get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+            }
+            return satellites[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 }
@@ -0,0 +1,324 @@
+package com.github.petr_s.nmea;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Parses NMEA streams of many devices on a fixed set of worker threads.
+ * Every device is pinned to a single shard by the hash of its key, so its {@link NMEAParser} is confined
+ * to the worker of that shard and can be created without locking (see {@link ParserFactory}).
+ * Parsers of devices idle for longer than the idle timeout are evicted, and recreated on their next sentence.
+ *
+ * @param <K> type of the device key, with consistent hashCode and equals
+ */
+public class NMEAParserPool<K> {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    private final ParserFactory<K> factory;
+    private final Shard[] shards;
+    private final long idleTimeoutNanos;
+    private final AtomicLong failures = new AtomicLong();
+    private volatile FailureHandler<? super K> failureHandler;
+    private volatile boolean shutdown;
+
+    public NMEAParserPool(ParserFactory<K> factory) {
+        this(factory, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY,
+                DEFAULT_IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * @param factory       factory of the per-device parsers
+     * @param shards        number of worker threads
+     * @param queueCapacity maximum number of pending sentences per shard
+     * @param idleTimeout   time without sentences after which the parser of a device is evicted
+     * @param unit          unit of the idle timeout
+     * @param threadFactory factory of the worker threads
+     */
+    @SuppressWarnings("unchecked")
+    public NMEAParserPool(ParserFactory<K> factory, int shards, int queueCapacity, long idleTimeout, TimeUnit unit,
+                          ThreadFactory threadFactory) {
+        if (factory == null || unit == null || threadFactory == null) {
+            throw new NullPointerException();
+        }
+        if (shards <= 0 || queueCapacity <= 0 || idleTimeout <= 0) {
+            throw new IllegalArgumentException("shards, queue capacity and idle timeout must be positive");
+        }
+
+        this.factory = factory;
+        this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+        this.shards = (Shard[]) new NMEAParserPool<?>.Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard(queueCapacity);
+        }
+        for (Shard shard : this.shards) {
+            shard.thread = threadFactory.newThread(shard);
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * Queues a single sentence of a device, blocking while the queue of its shard is full.
+     *
+     * @param device   key of the device
+     * @param sentence sentence without line terminator
+     * @throws InterruptedException if interrupted while waiting for the queue
+     */
+    public void submit(K device, String sentence) throws InterruptedException {
+        if (sentence == null) {
+            throw new NullPointerException();
+        }
+        shard(device).submit(new Task<>(device, sentence, null));
+    }
+
+    /**
+     * Queues line separated sentences of a device, parsed as a single batch,
+     * blocking while the queue of its shard is full.
+     *
+     * @param device    key of the device
+     * @param sentences ASCII bytes of the sentences, not to be modified once submitted
+     * @throws InterruptedException if interrupted while waiting for the queue
+     */
+    public void submit(K device, byte[] sentences) throws InterruptedException {
+        if (sentences == null) {
+            throw new NullPointerException();
+        }
+        shard(device).submit(new Task<>(device, null, sentences));
+    }
+
+    private Shard shard(K device) {
+        if (device == null) {
+            throw new NullPointerException();
+        }
+        if (shutdown) {
+            throw new IllegalStateException("pool is shut down");
+        }
+        return shards[shardIndex(device)];
+    }
+
+    /**
+     * @return index of the shard parsing the device
+     */
+    public int shardIndex(K device) {
+        int hash = device.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % shards.length;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @return number of sentences waiting in the queue of the shard
+     */
+    public int getQueueDepth(int shard) {
+        return shards[shard].queue.size();
+    }
+
+    /**
+     * @return number of devices with a live parser in the shard
+     */
+    public int getDeviceCount(int shard) {
+        return shards[shard].devices;
+    }
+
+    /**
+     * @return number of submissions that failed with an exception outside of the parsers' own error handling
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @param failureHandler handler of the failures counted by {@link #getFailures()}, called on the worker thread,
+     *                       or null to only count them
+     */
+    public void setFailureHandler(FailureHandler<? super K> failureHandler) {
+        this.failureHandler = failureHandler;
+    }
+
+    /**
+     * Stops accepting sentences, the workers finish the queued ones and exit.
+     * Waits for submissions already in progress to be queued.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    /**
+     * Waits for the workers to exit after {@link #shutdown()}.
+     *
+     * @return true if all workers exited before the timeout
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Shard shard : shards) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining > 0) {
+                shard.thread.join(remaining);
+            }
+            if (shard.thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the parser of a device. The parser is used by a single worker thread only,
+     * so it may be created in the confined mode, e.g. {@code new NMEAParser(handler, factory, false, false)}.
+     */
+    public interface ParserFactory<K> {
+        NMEAParser newParser(K device);
+    }
+
+    /**
+     * Receives exceptions thrown while processing a submission, e.g. by the {@link ParserFactory}
+     * or by {@link NMEAHandler#onStart()}. Exceptions thrown by {@link #onFailure} are ignored.
+     */
+    public interface FailureHandler<K> {
+        void onFailure(K device, RuntimeException e);
+    }
+
+    private static class Task<K> {
+        final K device;
+        final String sentence;
+        final byte[] sentences;
+
+        Task(K device, String sentence, byte[] sentences) {
+            this.device = device;
+            this.sentence = sentence;
+            this.sentences = sentences;
+        }
+    }
+
+    private static class Device {
+        final NMEAParser parser;
+        long lastUsed;
+
+        Device(NMEAParser parser) {
+            this.parser = parser;
+        }
+    }
+
+    private class Shard implements Runnable {
+        final BlockingQueue<Task<K>> queue;
+        final Map<K, Device> parsers = new HashMap<>();
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile int devices;
+        volatile boolean closed;
+        Thread thread;
+        private long lastEviction = System.nanoTime();
+
+        Shard(int capacity) {
+            queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Queues the task unless the shard is closed. Submitters share the lock, so the worker can't exit
+         * while a task is being queued, and no task is queued once it was closed.
+         */
+        void submit(Task<K> task) throws InterruptedException {
+            lock.readLock().lockInterruptibly();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("pool is shut down");
+                }
+                queue.put(task);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void close() {
+            lock.writeLock().lock();
+            try {
+                closed = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            thread.interrupt();
+        }
+
+        @Override
+        public void run() {
+            long pollNanos = Math.max(idleTimeoutNanos / 2, 1);
+            while (true) {
+                Task<K> task;
+                try {
+                    task = closed ? queue.poll() : queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+
+                if (task != null) {
+                    process(task);
+                } else if (closed) {
+                    break;
+                }
+                evict();
+            }
+        }
+
+        private void process(Task<K> task) {
+            try {
+                Device device = parsers.get(task.device);
+                if (device == null) {
+                    device = new Device(factory.newParser(task.device));
+                    parsers.put(task.device, device);
+                    devices = parsers.size();
+                }
+                device.lastUsed = System.nanoTime();
+
+                if (task.sentence != null) {
+                    device.parser.parse(task.sentence);
+                } else {
+                    device.parser.parseBatch(task.sentences, 0, task.sentences.length);
+                }
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                fail(task.device, e);
+            }
+        }
+
+        private void fail(K device, RuntimeException e) {
+            FailureHandler<? super K> failureHandler = NMEAParserPool.this.failureHandler;
+            if (failureHandler == null) {
+                return;
+            }
+            try {
+                failureHandler.onFailure(device, e);
+            } catch (RuntimeException ignored) {
+                // keeps the worker alive
+            }
+        }
+
+        private void evict() {
+            long now = System.nanoTime();
+            if (now - lastEviction < idleTimeoutNanos / 2) {
+                return;
+            }
+            lastEviction = now;
+
+            Iterator<Device> iterator = parsers.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().lastUsed >= idleTimeoutNanos) {
+                    iterator.remove();
+                }
+            }
+            devices = parsers.size();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.petr_s.nmea;
+
+import android.location.Location;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes locations and satellites of an {@link NMEAParser} to subscribers with demand-based backpressure.
+ * The publisher is the handler of the parser, e.g. {@code new NMEAParser(publisher)}; the parsing thread only
+ * queues the items, which are delivered on the given executor once the subscriber has requested them,
+ * so a slow subscriber never stalls parsing. While there is no demand, items are queued per subscriber
+ * up to the buffer size, the {@link Overflow} strategy decides which items are dropped beyond it.
+ * A subscriber throwing from a callback is cancelled and gets the exception in {@link Subscriber#onError}.
+ * <p>
+ * The items outlive the parser callbacks, so the parser must not recycle them
+ * (i.e. it must not be created with the reuse flag).
+ */
+public class NMEAPublisher extends NMEAAdapter {
+    public static final int DEFAULT_BUFFER_SIZE = 16;
+    private final Executor executor;
+    private final Overflow overflow;
+    private final int bufferSize;
+    private final List<Emitter> emitters = new CopyOnWriteArrayList<>();
+    private volatile boolean completed;
+
+    public NMEAPublisher(Executor executor) {
+        this(executor, Overflow.DROP_OLDEST, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param executor   executor delivering the items to the subscribers
+     * @param overflow   what happens to new items when the buffer of a subscriber is full
+     * @param bufferSize maximum number of undelivered items per subscriber, ignored by {@link Overflow#LATEST}
+     */
+    public NMEAPublisher(Executor executor, Overflow overflow, int bufferSize) {
+        if (executor == null || overflow == null) {
+            throw new NullPointerException();
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("buffer size must be positive");
+        }
+
+        this.executor = executor;
+        this.overflow = overflow;
+        this.bufferSize = overflow == Overflow.LATEST ? 1 : bufferSize;
+    }
+
+    /**
+     * Adds a subscriber, {@link Subscriber#onSubscribe(Subscription)} is called on the calling thread.
+     * Nothing is delivered until the subscriber requests items.
+     */
+    public void subscribe(Subscriber subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException();
+        }
+
+        Emitter emitter = new Emitter(subscriber);
+        emitters.add(emitter);
+        subscriber.onSubscribe(emitter);
+        if (completed) {
+            emitter.schedule();
+        }
+    }
+
+    /**
+     * Signals the end of the stream, subscribers get {@link Subscriber#onComplete()}
+     * after the items already queued for them.
+     */
+    public void complete() {
+        completed = true;
+        for (Emitter emitter : emitters) {
+            emitter.schedule();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    @Override
+    public void onLocation(Location location) {
+        publish(location);
+    }
+
+    @Override
+    public void onSatellites(List<GpsSatellite> satellites) {
+        publish(satellites);
+    }
+
+    private void publish(Object item) {
+        for (Emitter emitter : emitters) {
+            emitter.push(item);
+        }
+    }
+
+    public enum Overflow {
+        /**
+         * Keeps the oldest items, new items are dropped while the buffer is full.
+         */
+        BUFFER,
+        /**
+         * Drops the oldest item to make room for a new one.
+         */
+        DROP_OLDEST,
+        /**
+         * Keeps only the latest item.
+         */
+        LATEST
+    }
+
+    public interface Subscriber {
+        void onSubscribe(Subscription subscription);
+
+        void onLocation(Location location);
+
+        void onSatellites(List<GpsSatellite> satellites);
+
+        void onComplete();
+
+        /**
+         * Called once the subscriber threw from {@link #onLocation(Location)} or {@link #onSatellites(List)},
+         * its subscription is cancelled and nothing else is delivered. Exceptions thrown by it are ignored.
+         *
+         * @param e exception thrown by the subscriber
+         */
+        void onError(RuntimeException e);
+    }
+
+    public interface Subscription {
+        /**
+         * Requests n more items, locations and satellite lists count alike.
+         *
+         * @param n positive number of items, {@link Long#MAX_VALUE} for unbounded demand
+         */
+        void request(long n);
+
+        /**
+         * Stops the delivery and drops the queued items.
+         */
+        void cancel();
+
+        /**
+         * @return number of items dropped by the overflow strategy
+         */
+        long getDropped();
+    }
+
+    private class Emitter implements Subscription, Runnable {
+        private final Subscriber subscriber;
+        private final Queue<Object> queue = new ArrayDeque<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private long requested;
+        private long dropped;
+        private boolean cancelled;
+        private boolean done;
+
+        Emitter(Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void push(Object item) {
+            synchronized (this) {
+                if (cancelled || done) {
+                    return;
+                }
+                if (queue.size() >= bufferSize) {
+                    dropped++;
+                    if (overflow == Overflow.BUFFER) {
+                        return;
+                    }
+                    queue.poll();
+                }
+                queue.offer(item);
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                throw new IllegalArgumentException("request must be positive");
+            }
+
+            synchronized (this) {
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                queue.clear();
+            }
+            emitters.remove(this);
+        }
+
+        @Override
+        public synchronized long getDropped() {
+            return dropped;
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                drain();
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void drain() {
+            while (true) {
+                Object item = null;
+                boolean complete = false;
+                synchronized (this) {
+                    if (cancelled || done) {
+                        return;
+                    }
+                    if (requested > 0) {
+                        item = queue.poll();
+                    }
+                    if (item != null) {
+                        if (requested != Long.MAX_VALUE) {
+                            requested--;
+                        }
+                    } else if (completed && queue.isEmpty()) {
+                        complete = done = true;
+                        emitters.remove(this);
+                    }
+                }
+
+                if (item == null && !complete) {
+                    return;
+                }
+                try {
+                    if (complete) {
+                        subscriber.onComplete();
+                    } else if (item instanceof Location) {
+                        subscriber.onLocation((Location) item);
+                    } else {
+                        subscriber.onSatellites((List<GpsSatellite>) item);
+                    }
+                } catch (RuntimeException e) {
+                    cancel();
+                    if (!complete) {
+                        try {
+                            subscriber.onError(e);
+                        } catch (RuntimeException ignored) {
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
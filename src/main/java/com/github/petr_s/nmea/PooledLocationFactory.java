@@ -0,0 +1,104 @@
+package com.github.petr_s.nmea;
+
+import android.location.Location;
+
+/**
+ * Location factory keeping up to a fixed number of recycled locations, so handlers returning every location
+ * with {@link #recycle(Location)} get no per-epoch allocation. Recycled locations are {@link Location#reset() reset}
+ * before they are handed out again.
+ */
+public class PooledLocationFactory extends LocationFactory {
+    public static final int DEFAULT_CAPACITY = 4;
+    private final String provider;
+    private final Location[] pool;
+    private final Object lock;
+    private int size;
+    private long created;
+
+    public PooledLocationFactory() {
+        this(NMEAParser.LOCATION_PROVIDER_NAME, DEFAULT_CAPACITY, true);
+    }
+
+    /**
+     * @param provider   provider of the created locations
+     * @param capacity   maximum number of pooled locations, further recycled ones are left to the garbage collector
+     * @param threadSafe if true, locations may be created and recycled from several threads,
+     *                   otherwise the factory takes no locks and must be confined to a single thread at a time
+     */
+    public PooledLocationFactory(String provider, int capacity, boolean threadSafe) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.provider = provider;
+        this.pool = new Location[capacity];
+        this.lock = threadSafe ? this : null;
+    }
+
+    @Override
+    public Location newLocation() {
+        if (lock == null) {
+            return obtain();
+        }
+        synchronized (lock) {
+            return obtain();
+        }
+    }
+
+    @Override
+    public void recycle(Location location) {
+        if (location == null) {
+            throw new NullPointerException();
+        }
+
+        location.reset();
+        location.setProvider(provider);
+        if (lock == null) {
+            release(location);
+        } else {
+            synchronized (lock) {
+                release(location);
+            }
+        }
+    }
+
+    private Location obtain() {
+        if (size == 0) {
+            created++;
+            return new Location(provider);
+        }
+        Location location = pool[--size];
+        pool[size] = null;
+        return location;
+    }
+
+    private void release(Location location) {
+        if (size < pool.length) {
+            pool[size++] = location;
+        }
+    }
+
+    /**
+     * @return number of locations waiting in the pool
+     */
+    public int getPooled() {
+        if (lock == null) {
+            return size;
+        }
+        synchronized (lock) {
+            return size;
+        }
+    }
+
+    /**
+     * @return total number of locations allocated by the factory
+     */
+    public long getCreated() {
+        if (lock == null) {
+            return created;
+        }
+        synchronized (lock) {
+            return created;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.petr_s.nmea;
+
+import android.location.Location;
+import com.github.petr_s.nmea.basic.BasicNMEAStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class NMEAParallelParserTest {
+    private static final String[] SENTENCES = {
+            "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38",
+            "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F",
+            "$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D",
+            "$GPGSV,3,2,11,12,23,110,34,26,18,295,29,21,17,190,30,05,11,092,25*72",
+            "$GPGSV,3,3,11,14,02,232,13,23,02,346,12,20,01,135,13*48",
+            "$GLGSV,2,1,05,65,64,037,41,66,29,090,36,67,13,155,28,72,36,327,40*6E",
+            "$GLGSV,2,2,05,73,50,270,38*5F",
+            "$GLGSA,A,3,65,66,72,,,,,,,,,,1.6,1.0,1.3*2C",
+            "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B",
+            "$GPGGA,163408.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*50",
+            "$GPXXX,1,2,3*53",
+            "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*42"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static LocationFactory locationFactory() {
+        return new LocationFactory() {
+            @Override
+            public Location newLocation() {
+                return mock(Location.class);
+            }
+        };
+    }
+
+    private File write(int repeat) throws Exception {
+        File file = folder.newFile();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            for (int i = 0; i < repeat; i++) {
+                for (String sentence : SENTENCES) {
+                    out.write((sentence + "\r\n").getBytes("US-ASCII"));
+                }
+            }
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() throws Exception {
+        new NMEAParallelParser(new NMEAAdapter(), null);
+    }
+
+    @Test
+    public void testParseSameAsSequential() throws Exception {
+        File file = write(200);
+
+        RecordingHandler sequential = new RecordingHandler();
+        NMEAParser parser = new NMEAParser(sequential, locationFactory());
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                parser.parse(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        RecordingHandler parallel = new RecordingHandler();
+        new NMEAParallelParser(new NMEAParser(parallel, locationFactory()), executor, 300).parse(file);
+
+        assertTrue(sequential.events.size() > 200 * SENTENCES.length * 2);
+        assertEquals(sequential.events, parallel.events);
+    }
+
+    @Test
+    public void testParseSubscribedWithStats() throws Exception {
+        File file = write(200);
+
+        RecordingHandler sequential = new RecordingHandler();
+        NMEAParser parser = new NMEAParser(sequential, locationFactory());
+        parser.subscribe(true, false);
+        BasicNMEAStats sequentialStats = new BasicNMEAStats();
+        parser.setStats(sequentialStats);
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                parser.parse(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        RecordingHandler parallel = new RecordingHandler();
+        NMEAParser target = new NMEAParser(parallel, locationFactory());
+        target.subscribe(true, false);
+        BasicNMEAStats parallelStats = new BasicNMEAStats();
+        target.setStats(parallelStats);
+        new NMEAParallelParser(target, executor, 300).parse(file);
+
+        assertEquals(sequential.events, parallel.events);
+        assertFalse(parallel.events.toString().contains("satellites"));
+        assertEquals(200 * 8, parallelStats.getSkipped());
+        assertEquals(sequentialStats.snapshot().toString().replaceAll("p\\d+=\\d+, ", ""),
+                parallelStats.snapshot().toString().replaceAll("p\\d+=\\d+, ", ""));
+    }
+
+    @Test
+    public void testParseEmpty() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        new NMEAParallelParser(handler, executor).parse(folder.newFile());
+
+        assertEquals(0, handler.events.size());
+    }
+
+    private static class RecordingHandler extends NMEAAdapter {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onStart() {
+            events.add("start");
+        }
+
+        @Override
+        public void onLocation(Location location) {
+            events.add("location");
+        }
+
+        @Override
+        public void onSatellites(List<GpsSatellite> satellites) {
+            events.add("satellites " + satellites);
+        }
+
+        @Override
+        public void onUnrecognized(String sentence) {
+            events.add("unrecognized " + sentence);
+        }
+
+        @Override
+        public void onBadChecksum(int expected, int actual) {
+            events.add("checksum " + expected + " " + actual);
+        }
+
+        @Override
+        public void onException(Exception e) {
+            events.add("exception " + e);
+        }
+
+        @Override
+        public void onFinish() {
+            events.add("finish");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.petr_s.nmea;
+
+import android.location.Location;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class NMEAParserPoolTest {
+    private static final String RMC = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38";
+    private static final String GGA = "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F";
+
+    NMEAParserPool<Integer> pool;
+
+    @After
+    public void tearDown() throws Exception {
+        if (pool != null) {
+            pool.shutdown();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() throws Exception {
+        new NMEAParserPool<Integer>(null);
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        final Map<Integer, Location> locations = new HashMap<>();
+        for (int device = 0; device < 16; device++) {
+            locations.put(device, mock(Location.class));
+        }
+        final Map<Integer, AtomicInteger> fixes = new ConcurrentHashMap<>();
+        final Map<Integer, Set<Thread>> threads = new ConcurrentHashMap<>();
+        pool = new NMEAParserPool<>(new NMEAParserPool.ParserFactory<Integer>() {
+            @Override
+            public NMEAParser newParser(final Integer device) {
+                fixes.put(device, new AtomicInteger());
+                threads.put(device, Collections.synchronizedSet(new HashSet<Thread>()));
+                return new NMEAParser(new NMEAAdapter() {
+                    @Override
+                    public void onLocation(Location location) {
+                        fixes.get(device).incrementAndGet();
+                        threads.get(device).add(Thread.currentThread());
+                    }
+                }, new LocationFactory() {
+                    @Override
+                    public Location newLocation() {
+                        return locations.get(device);
+                    }
+                }, false, false);
+            }
+        }, 4, 16, 1, TimeUnit.HOURS, Executors.defaultThreadFactory());
+
+        byte[] epoch = (RMC + "\r\n" + GGA + "\r\n").getBytes("US-ASCII");
+        for (int i = 0; i < 100; i++) {
+            for (int device = 0; device < 16; device++) {
+                if (i % 2 == 0) {
+                    pool.submit(device, RMC);
+                    pool.submit(device, GGA);
+                } else {
+                    pool.submit(device, epoch);
+                }
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        int devices = 0;
+        for (int shard = 0; shard < pool.getShardCount(); shard++) {
+            assertEquals(0, pool.getQueueDepth(shard));
+            devices += pool.getDeviceCount(shard);
+        }
+        assertEquals(16, devices);
+        for (int device = 0; device < 16; device++) {
+            assertEquals(100, fixes.get(device).get());
+            assertEquals(1, threads.get(device).size());
+        }
+        assertEquals(0, pool.getFailures());
+    }
+
+    @Test
+    public void testEvictIdle() throws Exception {
+        final AtomicInteger parsers = new AtomicInteger();
+        pool = new NMEAParserPool<>(new NMEAParserPool.ParserFactory<Integer>() {
+            @Override
+            public NMEAParser newParser(Integer device) {
+                parsers.incrementAndGet();
+                return new NMEAParser(new NMEAAdapter(), null, false, false);
+            }
+        }, 1, 16, 50, TimeUnit.MILLISECONDS, Executors.defaultThreadFactory());
+
+        pool.submit(1, GGA.replace('$', '!'));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.getDeviceCount(0) != 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, pool.getDeviceCount(0));
+        while (pool.getDeviceCount(0) != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, pool.getDeviceCount(0));
+
+        pool.submit(1, GGA.replace('$', '!'));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, parsers.get());
+    }
+
+    @Test
+    public void testFailureHandler() throws Exception {
+        final Map<Integer, RuntimeException> failures = new ConcurrentHashMap<>();
+        pool = new NMEAParserPool<>(new NMEAParserPool.ParserFactory<Integer>() {
+            @Override
+            public NMEAParser newParser(Integer device) {
+                throw new IllegalStateException("device " + device);
+            }
+        }, 1, 16, 1, TimeUnit.HOURS, Executors.defaultThreadFactory());
+        pool.setFailureHandler(new NMEAParserPool.FailureHandler<Object>() {
+            @Override
+            public void onFailure(Object device, RuntimeException e) {
+                failures.put((Integer) device, e);
+                throw e;
+            }
+        });
+
+        pool.submit(1, RMC);
+        pool.submit(2, RMC);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(2, pool.getFailures());
+        assertEquals("device 1", failures.get(1).getMessage());
+        assertEquals("device 2", failures.get(2).getMessage());
+    }
+
+    @Test
+    public void testSubmitDuringShutdown() throws Exception {
+        final AtomicInteger parsed = new AtomicInteger();
+        pool = new NMEAParserPool<>(new NMEAParserPool.ParserFactory<Integer>() {
+            @Override
+            public NMEAParser newParser(Integer device) {
+                return new NMEAParser(new NMEAAdapter() {
+                    @Override
+                    public void onStart() {
+                        parsed.incrementAndGet();
+                    }
+                }, null, false, false);
+            }
+        }, 2, 4, 1, TimeUnit.HOURS, Executors.defaultThreadFactory());
+
+        final AtomicInteger accepted = new AtomicInteger();
+        Thread[] submitters = new Thread[4];
+        for (int i = 0; i < submitters.length; i++) {
+            final int device = i;
+            submitters[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (true) {
+                            pool.submit(device, GGA.replace('$', '!'));
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException | InterruptedException e) {
+                        // shut down
+                    }
+                }
+            });
+            submitters[i].start();
+        }
+        Thread.sleep(50);
+        pool.shutdown();
+        for (Thread submitter : submitters) {
+            submitter.join(5000);
+            assertFalse(submitter.isAlive());
+        }
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(accepted.get() > 0);
+        assertEquals(accepted.get(), parsed.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitAfterShutdown() throws Exception {
+        pool = new NMEAParserPool<>(new NMEAParserPool.ParserFactory<Integer>() {
+            @Override
+            public NMEAParser newParser(Integer device) {
+                return new NMEAParser(new NMEAAdapter());
+            }
+        });
+        pool.shutdown();
+        pool.submit(1, RMC);
+    }
+}
@@ -1,21 +1,53 @@
 package com.github.petr_s.nmea;
 
 import android.location.Location;
+import com.github.petr_s.nmea.basic.BasicNMEAEpoch;
+import com.github.petr_s.nmea.basic.BasicNMEAErrorHandler.FieldError;
+import com.github.petr_s.nmea.basic.BasicNMEAHandler.SentenceType;
+import com.github.petr_s.nmea.basic.BasicNMEAStats;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.petr_s.nmea.Helper.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
 
 @RunWith(MockitoJUnitRunner.class)
 public class NMEAParserTest {
+    private static final String[] GSV_60 = {
+            "$GPGSV,15,1,60,01,01,003,21,02,02,006,22,03,03,009,23,04,04,012,24*41",
+            "$GPGSV,15,2,60,05,05,015,25,06,06,018,26,07,07,021,27,08,08,024,28*4D",
+            "$GPGSV,15,3,60,09,09,027,29,10,10,030,30,11,11,033,31,12,12,036,32*40",
+            "$GPGSV,15,4,60,13,13,039,33,14,14,042,34,15,15,045,35,16,16,048,36*4A",
+            "$GPGSV,15,5,60,17,17,051,37,18,18,054,38,19,19,057,39,20,20,060,40*4E",
+            "$GPGSV,15,6,60,21,21,063,41,22,22,066,42,23,23,069,43,24,24,072,44*46",
+            "$GPGSV,15,7,60,25,25,075,45,26,26,078,46,27,27,081,47,28,28,084,48*48",
+            "$GPGSV,15,8,60,29,29,087,49,30,30,090,20,31,31,093,21,32,32,096,22*4C",
+            "$GPGSV,15,9,60,33,33,099,23,34,34,102,24,35,35,105,25,36,36,108,26*48",
+            "$GPGSV,15,10,60,37,37,111,27,38,38,114,28,39,39,117,29,40,40,120,30*7C",
+            "$GPGSV,15,11,60,41,41,123,31,42,42,126,32,43,43,129,33,44,44,132,34*70",
+            "$GPGSV,15,12,60,45,45,135,35,46,46,138,36,47,47,141,37,48,48,144,38*7C",
+            "$GPGSV,15,13,60,49,49,147,39,50,50,150,40,51,51,153,41,52,52,156,42*77",
+            "$GPGSV,15,14,60,53,53,159,43,54,54,162,44,55,55,165,45,56,56,168,46*7F",
+            "$GPGSV,15,15,60,57,57,171,47,58,58,174,48,59,59,177,49,60,60,180,20*72"};
+
     @Spy
     NMEAHandler handler = new NMEAAdapter();
 
@@ -40,7 +72,7 @@ public class NMEAParserTest {
 
     @Test(expected = NullPointerException.class)
     public void testParseNull() throws Exception {
-        parser.parse(null);
+        parser.parse((String) null);
     }
 
     @Test
@@ -55,7 +87,7 @@ public class NMEAParserTest {
         verify(handler).onLocation(location);
         verifyNoMoreInteractions(handler);
 
-        verify(location).setTime(eq(1460954639384L));
+        verify(location).setTime(eq(1460997247000L));
         verify(location).setLatitude(doubleThat(roughlyEq(50.07914)));
         verify(location).setLongitude(doubleThat(roughlyEq(14.39825)));
         verify(location).setAltitude(doubleThat(roughlyEq(240.2)));
@@ -68,6 +100,44 @@ public class NMEAParserTest {
         verifyNoMoreInteractions(locationFactory);
     }
 
+    @Test
+    public void testParseBatch() throws Exception {
+        when(locationFactory.newLocation()).thenReturn(location);
+
+        byte[] bytes = ("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38\r\n" +
+                "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F\r\n").getBytes("US-ASCII");
+        assertEquals(2, parser.parseBatch(bytes, 0, bytes.length));
+
+        verify(handler).onStart();
+        verify(handler).onFinish();
+        verify(handler).onLocation(location);
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseLocationBytes() throws Exception {
+        when(locationFactory.newLocation()).thenReturn(location);
+
+        byte[] rmc = "$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38".getBytes("US-ASCII");
+        byte[] gga = "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F".getBytes("US-ASCII");
+        parser.parse(rmc, 0, rmc.length);
+        parser.parse(ByteBuffer.wrap(gga));
+
+        verify(handler, times(2)).onStart();
+        verify(handler, times(2)).onFinish();
+        verify(handler).onLocation(location);
+        verifyNoMoreInteractions(handler);
+
+        verify(location).setTime(eq(1460997247000L));
+        verify(location).setLatitude(doubleThat(roughlyEq(50.07914)));
+        verify(location).setLongitude(doubleThat(roughlyEq(14.39825)));
+        verify(location).setAltitude(doubleThat(roughlyEq(240.2)));
+        verify(location).setAccuracy(floatThat(roughlyEq(6.8f)));
+        verify(location).setSpeed(floatThat(roughlyEq(0.02057f)));
+        verify(location).setBearing(floatThat(roughlyEq(36.97f)));
+        verifyNoMoreInteractions(location);
+    }
+
     @Test
     public void testParseLocationGGARMC() throws Exception {
         when(locationFactory.newLocation()).thenReturn(location);
@@ -80,7 +150,7 @@ public class NMEAParserTest {
         verify(handler).onLocation(location);
         verifyNoMoreInteractions(handler);
 
-        verify(location).setTime(eq(1460954639384L));
+        verify(location).setTime(eq(1460997247000L));
         verify(location).setLatitude(doubleThat(roughlyEq(50.079141)));
         verify(location).setLongitude(doubleThat(roughlyEq(14.39825)));
         verify(location).setAltitude(doubleThat(roughlyEq(240.2)));
@@ -105,6 +175,7 @@ public class NMEAParserTest {
         verifyNoMoreInteractions(handler);
 
         verify(locationFactory, times(2)).newLocation();
+        verify(locationFactory).recycle(location);
         verifyNoMoreInteractions(locationFactory);
     }
 
@@ -120,6 +191,7 @@ public class NMEAParserTest {
         verifyNoMoreInteractions(handler);
 
         verify(locationFactory, times(2)).newLocation();
+        verify(locationFactory).recycle(location);
         verifyNoMoreInteractions(locationFactory);
     }
 
@@ -138,6 +210,172 @@ public class NMEAParserTest {
         verifyNoMoreInteractions(locationFactory);
     }
 
+    @Test
+    public void testParseLocationRecycle() throws Exception {
+        final PooledLocationFactory factory = new PooledLocationFactory("test", 1, false);
+        factory.recycle(location);
+        NMEAHandler recycler = spy(new NMEAAdapter() {
+            @Override
+            public void onLocation(Location location) {
+                factory.recycle(location);
+            }
+        });
+        parser = new NMEAParser(recycler, factory);
+
+        for (int i = 0; i < 10; i++) {
+            parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+            parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+        }
+        parser.parse("$GPGGA,163408.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*50");
+        parser.parse("$GPRMC,163409.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*36");
+
+        verify(recycler, times(10)).onLocation(location);
+        assertEquals(0, factory.getCreated());
+        assertEquals(0, factory.getPooled());
+        verify(location, times(12)).reset();
+    }
+
+    @Test
+    public void testParseLocationPolicyFirst() throws Exception {
+        Location updated = mock(Location.class);
+        when(locationFactory.newLocation()).thenReturn(location, updated);
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(BasicNMEAEpoch.Policy.FIRST, 0, TimeUnit.SECONDS);
+        parser = new NMEAParser(handler, locationFactory, false, true, epoch);
+
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+        verify(handler).onLocation(location);
+        verify(location).setLatitude(doubleThat(roughlyEq(50.07914)));
+        verify(location).setLongitude(doubleThat(roughlyEq(14.39825)));
+        verify(location).setTime(eq(1460997247000L));
+
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+        verify(updated).setTime(eq(1460997247000L));
+        verify(updated).setSpeed(floatThat(roughlyEq(0.02057f)));
+        verify(updated).setAltitude(doubleThat(roughlyEq(240.2)));
+        verify(handler).onLocation(updated);
+        verify(location).setSpeed(anyFloat());
+        verify(location).setBearing(anyFloat());
+        verifyNoMoreInteractions(location);
+
+        verify(locationFactory, times(2)).newLocation();
+        verifyNoMoreInteractions(locationFactory);
+        assertEquals(1, epoch.getEpochs());
+        assertEquals(1, epoch.getCompleted());
+    }
+
+    @Test
+    public void testParseLocationPolicyFirstRecycle() throws Exception {
+        final PooledLocationFactory factory = new PooledLocationFactory("test", 1, false);
+        factory.recycle(location);
+        NMEAHandler recycler = spy(new NMEAAdapter() {
+            @Override
+            public void onLocation(Location location) {
+                factory.recycle(location);
+            }
+        });
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(BasicNMEAEpoch.Policy.FIRST, 0, TimeUnit.SECONDS);
+        parser = new NMEAParser(recycler, factory, false, true, epoch);
+
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+
+        verify(recycler, times(2)).onLocation(location);
+        verify(location, times(2)).setTime(eq(1460997247000L));
+        verify(location, times(2)).setSpeed(floatThat(roughlyEq(0.02057f)));
+        verify(location).setAltitude(doubleThat(roughlyEq(240.2)));
+        assertEquals(0, factory.getCreated());
+    }
+
+    @Test
+    public void testError() throws Exception {
+        NMEAErrorHandler errorHandler = mock(NMEAErrorHandler.class);
+        parser = new NMEAParser(errorHandler, locationFactory);
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,9,07,1.7,285.7,M,45.5,M,,0000*57");
+
+        verify(errorHandler).onStart();
+        verify(errorHandler).onError(SentenceType.GGA, 5, FieldError.OUT_OF_RANGE);
+        verify(errorHandler).onFinish();
+        verifyNoMoreInteractions(errorHandler);
+        verifyZeroInteractions(locationFactory);
+    }
+
+    @Test
+    public void testErrorSatellites() throws Exception {
+        NMEAErrorHandler errorHandler = mock(NMEAErrorHandler.class);
+        parser = new NMEAParser(errorHandler, locationFactory);
+        parser.parse("$GPGSV,1,1,2000,29,86,273,30,25,60,110,38*71");
+
+        verify(errorHandler).onStart();
+        verify(errorHandler).onError(SentenceType.GSV, 2, FieldError.OUT_OF_RANGE);
+        verify(errorHandler).onFinish();
+        verifyNoMoreInteractions(errorHandler);
+    }
+
+    @Test
+    public void testErrorException() throws Exception {
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,9,07,1.7,285.7,M,45.5,M,,0000*57");
+
+        verify(handler).onException(any(IllegalArgumentException.class));
+        verifyZeroInteractions(locationFactory);
+    }
+
+    @Test
+    public void testStats() throws Exception {
+        when(locationFactory.newLocation()).thenReturn(location);
+        BasicNMEAStats stats = new BasicNMEAStats();
+        parser.setStats(stats);
+        parser.subscribe(true, false);
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+        parser.parse("$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B");
+
+        BasicNMEAStats.Snapshot snapshot = stats.snapshot();
+        assertSame(stats, parser.getStats());
+        assertEquals(1, snapshot.getSentences(SentenceType.RMC));
+        assertEquals(1, snapshot.getSentences(SentenceType.GGA));
+        assertEquals(1, snapshot.getSkipped());
+        assertEquals(2, snapshot.getLatencyCount());
+        assertEquals(1, snapshot.getEpochs());
+        assertEquals(1, snapshot.getCompletedEpochs());
+    }
+
+    @Test
+    public void testParseLocationPolicyTimeout() throws Exception {
+        Location next = mock(Location.class);
+        when(locationFactory.newLocation()).thenReturn(location, next);
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(BasicNMEAEpoch.Policy.TIMEOUT, 1, TimeUnit.HOURS);
+        parser = new NMEAParser(handler, locationFactory, false, false, epoch);
+
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+        parser.poll();
+        verify(handler, never()).onLocation(any(Location.class));
+
+        parser.parse("$GPGGA,163408.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*50");
+        verify(handler).onLocation(location);
+        verify(locationFactory, never()).recycle(any(Location.class));
+        assertEquals(1, epoch.getEpochs());
+        assertEquals(0, epoch.getDropped());
+    }
+
+    @Test
+    public void testPollExpired() throws Exception {
+        when(locationFactory.newLocation()).thenReturn(location);
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch(BasicNMEAEpoch.Policy.TIMEOUT, 200, TimeUnit.MILLISECONDS);
+        parser = new NMEAParser(handler, locationFactory, false, true, epoch);
+
+        parser.parse("$GPGGA,163408.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*50");
+        verify(handler, never()).onLocation(any(Location.class));
+        Thread.sleep(250);
+        parser.poll();
+
+        verify(handler, times(2)).onStart();
+        verify(handler).onLocation(location);
+        verify(handler, times(2)).onFinish();
+        verifyNoMoreInteractions(handler);
+        assertEquals(1, epoch.getEpochs());
+        assertTrue(epoch.getLastLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
     @Test
     public void testParseLocationRMCRMC() throws Exception {
         when(locationFactory.newLocation()).thenReturn(location);
@@ -166,7 +404,7 @@ public class NMEAParserTest {
         verify(handler).onLocation(location);
         verifyNoMoreInteractions(handler);
 
-        verify(location).setTime(eq(1460954639384L));
+        verify(location).setTime(eq(1460997247000L));
         verify(location).setLatitude(doubleThat(roughlyEq(50.079141)));
         verify(location).setLongitude(doubleThat(roughlyEq(14.39825)));
         verify(location).setAltitude(doubleThat(roughlyEq(240.2)));
@@ -192,7 +430,7 @@ public class NMEAParserTest {
         verify(handler).onLocation(location);
         verifyNoMoreInteractions(handler);
 
-        verify(location).setTime(eq(1460954639384L));
+        verify(location).setTime(eq(1460997247000L));
         verify(location).setLatitude(doubleThat(roughlyEq(50.07914)));
         verify(location).setLongitude(doubleThat(roughlyEq(14.39825)));
         verify(location).setAltitude(doubleThat(roughlyEq(240.2)));
@@ -298,4 +536,268 @@ public class NMEAParserTest {
                 newSatellite(20, 1.0f, 135.0f, 13, false)}))));
         verifyNoMoreInteractions(handler);
     }
-}
\ No newline at end of file
+
+    private final List<GpsSatellite> gpSatellites = Arrays.asList(
+            newSatellite(1, 40.0f, 83.0f, 46, true),
+            newSatellite(2, 17.0f, 308.0f, 41, true),
+            newSatellite(3, 7.0f, 344.0f, 39, false),
+            newSatellite(4, 22.0f, 228.0f, 45, false),
+            newSatellite(5, 66.0f, 180.0f, 44, true),
+            newSatellite(6, 10.0f, 50.0f, 30, false));
+
+    private final List<GpsSatellite> glSatellites = Arrays.asList(
+            newSatellite(65, 64.0f, 37.0f, 41, true),
+            newSatellite(66, 29.0f, 90.0f, 36, true),
+            newSatellite(67, 13.0f, 155.0f, 28, false),
+            newSatellite(72, 36.0f, 327.0f, 40, true),
+            newSatellite(73, 50.0f, 270.0f, 38, false));
+
+    @Test
+    public void testParseSatelliteInterleavedTalkers() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            parser.parse("$GPGSV,2,1,06,01,40,083,46,02,17,308,41,03,07,344,39,04,22,228,45*7A");
+            parser.parse("$GLGSV,2,1,05,65,64,037,41,66,29,090,36,67,13,155,28,72,36,327,40*6E");
+            parser.parse("$GPGSV,2,2,06,05,66,180,44,06,10,050,30*72");
+            parser.parse("$GLGSV,2,2,05,73,50,270,38*5F");
+            parser.parse("$GPGSA,A,3,01,02,05,,,,,,,,,,1.6,1.0,1.3*30");
+            parser.parse("$GLGSA,A,3,65,66,72,,,,,,,,,,1.6,1.0,1.3*2C");
+        }
+
+        InOrder inOrder = inOrder(handler);
+        for (int i = 0; i < 2; i++) {
+            inOrder.verify(handler).onSatellites(argThat(eq(gpSatellites)));
+            inOrder.verify(handler).onSatellites(argThat(eq(glSatellites)));
+        }
+        verify(handler, times(4)).onSatellites(anyListOf(GpsSatellite.class));
+    }
+
+    @Test
+    public void testParseSatelliteCombinedGSA() throws Exception {
+        parser.parse("$GNGSA,A,3,01,02,05,,,,,,,,,,1.6,1.0,1.3*2E");
+        parser.parse("$GNGSA,A,3,65,66,72,,,,,,,,,,1.6,1.0,1.3*2E");
+        parser.parse("$GPGSV,2,1,06,01,40,083,46,02,17,308,41,03,07,344,39,04,22,228,45*7A");
+        parser.parse("$GLGSV,2,1,05,65,64,037,41,66,29,090,36,67,13,155,28,72,36,327,40*6E");
+        parser.parse("$GPGSV,2,2,06,05,66,180,44,06,10,050,30*72");
+        parser.parse("$GLGSV,2,2,05,73,50,270,38*5F");
+
+        InOrder inOrder = inOrder(handler);
+        inOrder.verify(handler).onSatellites(argThat(eq(gpSatellites)));
+        inOrder.verify(handler).onSatellites(argThat(eq(glSatellites)));
+        verify(handler, times(2)).onSatellites(anyListOf(GpsSatellite.class));
+    }
+
+    @Test
+    public void testSubscribeLocations() throws Exception {
+        parser.subscribe(true, false);
+        parser.parse("$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D");
+        parser.parse("$GPGSV,3,2,11,12,23,110,34,26,18,295,29,21,17,190,30,05,11,092,25*72");
+        parser.parse("$GPGSV,3,3,11,14,02,232,13,23,02,346,12,20,01,135,13*48");
+        parser.parse("$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B");
+
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseConfined() throws Exception {
+        when(locationFactory.newLocation()).thenReturn(location);
+        parser = new NMEAParser(handler, locationFactory, false, false);
+
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+
+        verify(handler, times(2)).onStart();
+        verify(handler, times(2)).onFinish();
+        verify(handler).onLocation(location);
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseThreadSafe() throws Exception {
+        when(locationFactory.newLocation()).thenReturn(location);
+        final List<GpsSatellite> expected = Arrays.asList(
+                newSatellite(29, 86.0f, 273.0f, 30, true),
+                newSatellite(25, 60.0f, 110.0f, 38, true),
+                newSatellite(31, 52.0f, 278.0f, 47, true),
+                newSatellite(2, 28.0f, 50.0f, 39, true),
+                newSatellite(12, 23.0f, 110.0f, 34, true),
+                newSatellite(26, 18.0f, 295.0f, 29, true),
+                newSatellite(21, 17.0f, 190.0f, 30, true),
+                newSatellite(5, 11.0f, 92.0f, 25, true),
+                newSatellite(14, 2.0f, 232.0f, 13, false),
+                newSatellite(23, 2.0f, 346.0f, 12, false),
+                newSatellite(20, 1.0f, 135.0f, 13, false));
+        final int[] counts = new int[3];
+        final NMEAParser parser = new NMEAParser(new NMEAAdapter() {
+            @Override
+            public void onLocation(Location location) {
+                counts[0]++;
+            }
+
+            @Override
+            public void onSatellites(List<GpsSatellite> satellites) {
+                counts[1]++;
+                if (!expected.equals(satellites)) {
+                    counts[2]++;
+                }
+            }
+        }, locationFactory, true, true);
+        final byte[] epoch = ("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38\r\n" +
+                "$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F\r\n" +
+                "$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D\r\n" +
+                "$GPGSV,3,2,11,12,23,110,34,26,18,295,29,21,17,190,30,05,11,092,25*72\r\n" +
+                "$GPGSV,3,3,11,14,02,232,13,23,02,346,12,20,01,135,13*48\r\n" +
+                "$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B\r\n").getBytes("US-ASCII");
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        parser.parseBatch(epoch, 0, epoch.length);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threads.length * 500, counts[0]);
+        assertEquals(threads.length * 500, counts[1]);
+        assertEquals(0, counts[2]);
+    }
+
+    private static String sentence(String body) {
+        int checksum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            checksum ^= body.charAt(i);
+        }
+        return String.format("$%s*%02X", body, checksum);
+    }
+
+    @Test
+    public void testParseThreadSafeSentences() throws Exception {
+        when(locationFactory.newLocation()).thenReturn(location);
+        final int threadCount = 4;
+        final int epochCount = 500;
+        final AtomicInteger inside = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final AtomicInteger locations = new AtomicInteger();
+        BasicNMEAEpoch epoch = new BasicNMEAEpoch();
+        final NMEAParser parser = new NMEAParser(new NMEAAdapter() {
+            @Override
+            public void onStart() {
+                if (inside.incrementAndGet() != 1) {
+                    overlaps.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onLocation(Location location) {
+                locations.incrementAndGet();
+            }
+
+            @Override
+            public void onException(Exception e) {
+                overlaps.incrementAndGet();
+            }
+
+            @Override
+            public void onFinish() {
+                inside.decrementAndGet();
+            }
+        }, locationFactory, false, true, epoch);
+
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threads.length; i++) {
+            final int thread = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < epochCount; j++) {
+                        int seconds = thread * epochCount + j;
+                        String time = String.format("%02d%02d%02d.000", seconds / 3600, seconds / 60 % 60, seconds % 60);
+                        parser.parse(sentence("GPRMC," + time + ",A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,"));
+                        parser.parse(sentence("GPGGA," + time + ",5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000"));
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // every sentence lands in exactly one epoch: completed epochs hold two, dropped and pending ones one
+        assertEquals(0, overlaps.get());
+        assertEquals(epoch.getCompleted(), locations.get());
+        assertEquals(2 * threadCount * epochCount,
+                2 * epoch.getCompleted() + epoch.getDropped() + (epoch.isPending() ? 1 : 0));
+    }
+
+    private List<GpsSatellite> newSatellites60() {
+        List<GpsSatellite> satellites = new ArrayList<>();
+        for (int prn = 1; prn <= 60; prn++) {
+            satellites.add(newSatellite(prn, prn % 90, prn * 3, 20 + prn % 30, prn <= 12));
+        }
+
+        return satellites;
+    }
+
+    @Test
+    public void testParseSatellite60GSV() throws Exception {
+        for (String sentence : GSV_60) {
+            parser.parse(sentence);
+        }
+        parser.parse("$GPGSA,A,3,01,02,03,04,05,06,07,08,09,10,11,12,1.6,1.0,1.3*35");
+
+        verify(handler, times(16)).onStart();
+        verify(handler, times(16)).onFinish();
+        verify(handler).onSatellites(argThat(eq(newSatellites60())));
+        verifyNoMoreInteractions(handler);
+    }
+
+    @Test
+    public void testParseSatelliteReuse() throws Exception {
+        parser = new NMEAParser(handler, locationFactory, true);
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+
+        parser.parse("$GPGSV,3,1,11,29,86,273,30,25,60,110,38,31,52,278,47,02,28,050,39*7D");
+        parser.parse("$GPGSV,3,2,11,12,23,110,34,26,18,295,29,21,17,190,30,05,11,092,25*72");
+        parser.parse("$GPGSV,3,3,11,14,02,232,13,23,02,346,12,20,01,135,13*48");
+        parser.parse("$GPGSA,A,3,25,02,26,05,29,31,21,12,,,,,1.6,1.0,1.3*3B");
+        verify(handler).onSatellites(captor.capture());
+        List<?> first = captor.getValue();
+        Object satellite = first.get(0);
+        assertEquals(11, first.size());
+
+        for (String sentence : GSV_60) {
+            parser.parse(sentence);
+        }
+        parser.parse("$GPGSA,A,3,01,02,03,04,05,06,07,08,09,10,11,12,1.6,1.0,1.3*35");
+        verify(handler, times(2)).onSatellites(captor.capture());
+        List<?> second = captor.getValue();
+
+        assertSame(first, second);
+        assertSame(satellite, second.get(0));
+        assertEquals(newSatellites60(), second);
+    }
+
+    @Test
+    public void testParseSatelliteNoReuse() throws Exception {
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+
+        for (int i = 0; i < 2; i++) {
+            for (String sentence : GSV_60) {
+                parser.parse(sentence);
+            }
+            parser.parse("$GPGSA,A,3,01,02,03,04,05,06,07,08,09,10,11,12,1.6,1.0,1.3*35");
+        }
+
+        verify(handler, times(2)).onSatellites(captor.capture());
+        assertNotSame(captor.getAllValues().get(0).get(0), captor.getAllValues().get(1).get(0));
+        assertEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+    }
+}
@@ -0,0 +1,267 @@
+package com.github.petr_s.nmea;
+
+import android.location.Location;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class NMEAPublisherTest {
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static List<Location> locations(int count) {
+        List<Location> locations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            locations.add(mock(Location.class));
+        }
+        return locations;
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() throws Exception {
+        new NMEAPublisher(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequestZero() throws Exception {
+        NMEAPublisher publisher = new NMEAPublisher(DIRECT);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+    }
+
+    @Test
+    public void testDemand() throws Exception {
+        NMEAPublisher publisher = new NMEAPublisher(DIRECT);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        List<Location> locations = locations(3);
+        List<GpsSatellite> satellites = Collections.singletonList(new GpsSatellite(1));
+
+        publisher.onLocation(locations.get(0));
+        assertTrue(subscriber.items.isEmpty());
+
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.<Object>asList(locations.get(0)), subscriber.items);
+
+        publisher.onSatellites(satellites);
+        publisher.onLocation(locations.get(1));
+        publisher.onLocation(locations.get(2));
+        assertEquals(1, subscriber.items.size());
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.<Object>asList(locations.get(0), satellites, locations.get(1)), subscriber.items);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(4, subscriber.items.size());
+        assertEquals(0, subscriber.subscription.getDropped());
+    }
+
+    @Test
+    public void testOverflowBuffer() throws Exception {
+        NMEAPublisher publisher = new NMEAPublisher(DIRECT, NMEAPublisher.Overflow.BUFFER, 2);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        List<Location> locations = locations(4);
+
+        for (Location location : locations) {
+            publisher.onLocation(location);
+        }
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.<Object>asList(locations.get(0), locations.get(1)), subscriber.items);
+        assertEquals(2, subscriber.subscription.getDropped());
+    }
+
+    @Test
+    public void testOverflowDropOldest() throws Exception {
+        NMEAPublisher publisher = new NMEAPublisher(DIRECT, NMEAPublisher.Overflow.DROP_OLDEST, 2);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        List<Location> locations = locations(4);
+
+        for (Location location : locations) {
+            publisher.onLocation(location);
+        }
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.<Object>asList(locations.get(2), locations.get(3)), subscriber.items);
+        assertEquals(2, subscriber.subscription.getDropped());
+    }
+
+    @Test
+    public void testOverflowLatest() throws Exception {
+        NMEAPublisher publisher = new NMEAPublisher(DIRECT, NMEAPublisher.Overflow.LATEST, 100);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        List<Location> locations = locations(4);
+
+        for (Location location : locations) {
+            publisher.onLocation(location);
+        }
+        subscriber.subscription.request(1);
+        publisher.onLocation(locations.get(0));
+        subscriber.subscription.request(1);
+
+        assertEquals(Arrays.<Object>asList(locations.get(3), locations.get(0)), subscriber.items);
+        assertEquals(3, subscriber.subscription.getDropped());
+    }
+
+    @Test
+    public void testCompleteAndCancel() throws Exception {
+        NMEAPublisher publisher = new NMEAPublisher(DIRECT);
+        RecordingSubscriber first = new RecordingSubscriber();
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+        assertEquals(2, publisher.getSubscriberCount());
+
+        publisher.onLocation(mock(Location.class));
+        second.subscription.cancel();
+        publisher.complete();
+        assertFalse(first.completed);
+
+        first.subscription.request(1);
+        assertEquals(1, first.items.size());
+        assertTrue(first.completed);
+        assertEquals(0, second.items.size());
+        assertFalse(second.completed);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void testParser() throws Exception {
+        NMEAPublisher publisher = new NMEAPublisher(DIRECT);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        final Location location = mock(Location.class);
+        NMEAParser parser = new NMEAParser(publisher, new LocationFactory() {
+            @Override
+            public Location newLocation() {
+                return location;
+            }
+        });
+
+        parser.parse("$GPRMC,163407.000,A,5004.7485,N,01423.8956,E,0.04,36.97,180416,,*38");
+        parser.parse("$GPGGA,163407.000,5004.7485,N,01423.8956,E,1,07,1.7,285.7,M,45.5,M,,0000*5F");
+        parser.parse("$GPGSA,A,3,10,07,05,02,29,04,08,13,,,,,1.72,1.03,1.38*0A");
+        parser.parse("$GPGSV,1,1,02,02,05,245,40,04,72,041,41*7A");
+
+        assertEquals(2, subscriber.items.size());
+        assertEquals(location, subscriber.items.get(0));
+        assertEquals(2, ((List<?>) subscriber.items.get(1)).size());
+    }
+
+    @Test
+    public void testSubscriberError() throws Exception {
+        NMEAPublisher publisher = new NMEAPublisher(DIRECT);
+        final RuntimeException error = new IllegalStateException();
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onLocation(Location location) {
+                super.onLocation(location);
+                throw error;
+            }
+        };
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        List<Location> locations = locations(2);
+
+        publisher.onLocation(locations.get(0));
+        publisher.onLocation(locations.get(1));
+        publisher.complete();
+
+        assertEquals(Collections.<Object>singletonList(locations.get(0)), subscriber.items);
+        assertEquals(Collections.singletonList(error), subscriber.errors);
+        assertFalse(subscriber.completed);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void testSlowSubscriber() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            NMEAPublisher publisher = new NMEAPublisher(executor, NMEAPublisher.Overflow.LATEST, 1);
+            final CountDownLatch release = new CountDownLatch(1);
+            RecordingSubscriber subscriber = new RecordingSubscriber() {
+                @Override
+                public void onLocation(Location location) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    super.onLocation(location);
+                }
+            };
+            publisher.subscribe(subscriber);
+            subscriber.subscription.request(Long.MAX_VALUE);
+            List<Location> locations = locations(1000);
+
+            for (Location location : locations) {
+                publisher.onLocation(location);
+            }
+            release.countDown();
+            publisher.complete();
+            assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+
+            assertEquals(locations.get(999), subscriber.items.get(subscriber.items.size() - 1));
+            assertEquals(1000, subscriber.items.size() + subscriber.subscription.getDropped());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static class RecordingSubscriber implements NMEAPublisher.Subscriber {
+        final List<Object> items = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        NMEAPublisher.Subscription subscription;
+        final List<RuntimeException> errors = new ArrayList<>();
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(NMEAPublisher.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onLocation(Location location) {
+            items.add(location);
+        }
+
+        @Override
+        public void onSatellites(List<GpsSatellite> satellites) {
+            items.add(satellites);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+
+        @Override
+        public void onError(RuntimeException e) {
+            errors.add(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.petr_s.nmea;
+
+import android.location.Location;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.*;
+
+public class PooledLocationFactoryTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorCapacity() throws Exception {
+        new PooledLocationFactory("test", 0, true);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testRecycleNull() throws Exception {
+        new PooledLocationFactory().recycle(null);
+    }
+
+    @Test
+    public void testRecycle() throws Exception {
+        PooledLocationFactory factory = new PooledLocationFactory("test", 2, true);
+        Location first = mock(Location.class);
+        Location second = mock(Location.class);
+        Location third = mock(Location.class);
+
+        factory.recycle(first);
+        factory.recycle(second);
+        factory.recycle(third);
+        assertEquals(2, factory.getPooled());
+
+        assertSame(second, factory.newLocation());
+        assertSame(first, factory.newLocation());
+        assertEquals(0, factory.getPooled());
+        assertEquals(0, factory.getCreated());
+
+        for (Location location : new Location[]{first, second, third}) {
+            verify(location).reset();
+            verify(location).setProvider("test");
+            verifyNoMoreInteractions(location);
+        }
+    }
+}